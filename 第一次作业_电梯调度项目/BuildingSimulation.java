@@ -0,0 +1,220 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+// 单栋楼宇的无头仿真（一个分片）
+// 电梯系统运行在无头模式下，每部电梯有自己的模拟时钟，每次推进时钟最早的电梯，
+// 乘客按种子随机生成，整个仿真在调用线程内完成，不占用额外线程
+public class BuildingSimulation implements ElevatorSystem.ArrivalListener {
+    private static final double LOBBY_SHARE = 0.5; // 从1层出发的乘客比例（上班高峰）
+    private static final long HALL_CALL_AUDIT_INTERVAL = 5000; // 呼叫巡检间隔(ms)
+    
+    private final ElevatorSystem elevatorSystem;
+    private final Random random;
+    private final double arrivalsPerMinute; // 平均每分钟到达的乘客数
+    private final List<List<Passenger>> waitingPassengers; // 每层候梯的乘客
+    private final List<List<Passenger>> ridingPassengers; // 每部电梯内的乘客
+    private final SimulationMetrics metrics = new SimulationMetrics();
+    private final List<SimulationMetrics> windowMetrics = new ArrayList<>(); // 按时间窗分段的统计
+    private long windowLength; // 时间窗长度(ms)，0表示不分段
+    private FaultInjector faultInjector; // 故障注入器，可为null
+    private long nextArrivalTime; // 下一位乘客的到达时间(ms)
+    private long nextAuditTime = HALL_CALL_AUDIT_INTERVAL; // 下一次呼叫巡检时间(ms)
+    
+    // 乘客：出发楼层、目的楼层及各时间点
+    private static class Passenger {
+        final int origin;
+        final int destination;
+        final long arrivalTime;
+        long boardingTime;
+        
+        Passenger(int origin, int destination, long arrivalTime) {
+            this.origin = origin;
+            this.destination = destination;
+            this.arrivalTime = arrivalTime;
+        }
+    }
+    
+    public BuildingSimulation(int floors, int elevators, double arrivalsPerMinute, long seed) {
+        this(floors, elevators, arrivalsPerMinute, seed, null);
+    }
+    
+    // kinematics 为null时使用电梯系统默认的匀速模型
+    public BuildingSimulation(int floors, int elevators, double arrivalsPerMinute, long seed,
+                              KinematicModel kinematics) {
+        this.elevatorSystem = new ElevatorSystem(floors, elevators, true);
+        if (kinematics != null) {
+            elevatorSystem.setKinematics(kinematics);
+        }
+        this.random = new Random(seed);
+        this.arrivalsPerMinute = arrivalsPerMinute;
+        this.waitingPassengers = new ArrayList<>();
+        this.ridingPassengers = new ArrayList<>();
+        for (int i = 0; i < floors; i++) {
+            waitingPassengers.add(new ArrayList<>());
+        }
+        for (int i = 0; i < elevators; i++) {
+            ridingPassengers.add(new ArrayList<>());
+        }
+        elevatorSystem.setArrivalListener(this);
+        nextArrivalTime = nextInterArrivalTime();
+    }
+    
+    // 运行仿真直到模拟时钟到达 duration(ms)，返回本楼的统计
+    public SimulationMetrics run(long duration) {
+        elevatorSystem.start();
+        while (true) {
+            Elevator elevator = earliestElevator();
+            long now = elevator.getSimulatedTime();
+            if (now >= duration) {
+                break;
+            }
+            
+            // 先生成当前时刻之前到达的乘客，再推进该电梯
+            while (nextArrivalTime <= now) {
+                spawnPassenger(nextArrivalTime);
+                nextArrivalTime += nextInterArrivalTime();
+            }
+            if (now >= nextAuditTime) {
+                elevatorSystem.auditHallCalls();
+                nextAuditTime += HALL_CALL_AUDIT_INTERVAL;
+            }
+            if (faultInjector != null) {
+                faultInjector.update(elevator, now);
+            }
+            elevator.step();
+        }
+        metrics.recordBuilding(duration);
+        // 最后一步可能越过 duration，丢弃结束之后的时间窗
+        while (windowLength > 0 && windowMetrics.size() * windowLength > duration + windowLength - 1) {
+            windowMetrics.remove(windowMetrics.size() - 1);
+        }
+        for (int i = 0; i < windowMetrics.size(); i++) {
+            windowMetrics.get(i).recordBuilding(Math.min(windowLength, duration - i * windowLength));
+        }
+        return metrics;
+    }
+    
+    // 使用指定的调度策略，须在 run 之前调用
+    public void setDispatchPolicy(DispatchPolicy policy) {
+        elevatorSystem.setDispatchPolicy(policy);
+    }
+    
+    // 按 windowLength(ms) 分段统计，用于观察指标随时间的变化，须在 run 之前调用
+    public void setWindowLength(long windowLength) {
+        this.windowLength = windowLength;
+    }
+    
+    // 须在 run 之前调用
+    public void setFaultInjector(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+        elevatorSystem.setFaultInjector(faultInjector);
+    }
+    
+    // 各时间窗的统计，第 i 项对应 [i * windowLength, (i + 1) * windowLength)
+    public List<SimulationMetrics> getWindowMetrics() {
+        return windowMetrics;
+    }
+    
+    // time 所在时间窗的统计；未分段时返回null
+    private SimulationMetrics window(long time) {
+        if (windowLength <= 0) {
+            return null;
+        }
+        int index = (int) (time / windowLength);
+        while (windowMetrics.size() <= index) {
+            windowMetrics.add(new SimulationMetrics());
+        }
+        return windowMetrics.get(index);
+    }
+    
+    // 乘客上下梯：先让到达本层的乘客下梯，再让本层去往电梯离开方向的候梯乘客上梯并按下目的楼层
+    // （方向为 IDLE 时所有候梯乘客都上梯）；按钮已在到达时由 Floor 熄灭
+    @Override
+    public void elevatorArrived(Elevator elevator, int floor, Direction direction, long time) {
+        List<Passenger> riding = ridingPassengers.get(elevator.getId() - 1);
+        Iterator<Passenger> iterator = riding.iterator();
+        while (iterator.hasNext()) {
+            Passenger passenger = iterator.next();
+            if (passenger.destination == floor) {
+                iterator.remove();
+                metrics.recordDelivery(time - passenger.boardingTime);
+                SimulationMetrics window = window(time);
+                if (window != null) {
+                    window.recordDelivery(time - passenger.boardingTime);
+                }
+            }
+        }
+        
+        List<Passenger> waiting = waitingPassengers.get(floor - 1);
+        if (waiting.isEmpty()) {
+            return;
+        }
+        Iterator<Passenger> waitingIterator = waiting.iterator();
+        while (waitingIterator.hasNext()) {
+            Passenger passenger = waitingIterator.next();
+            if (direction != Direction.IDLE && (passenger.destination > floor) != (direction == Direction.UP)) {
+                continue;
+            }
+            waitingIterator.remove();
+            passenger.boardingTime = time;
+            metrics.recordBoarding(time - passenger.arrivalTime);
+            SimulationMetrics window = window(time);
+            if (window != null) {
+                window.recordBoarding(time - passenger.arrivalTime);
+            }
+            riding.add(passenger);
+            elevator.pressFloorButton(passenger.destination);
+        }
+    }
+    
+    // 生成一位乘客并在出发楼层按下呼梯按钮
+    private void spawnPassenger(long time) {
+        int floors = elevatorSystem.getFloorCount();
+        int origin = random.nextDouble() < LOBBY_SHARE ? 1 : 1 + random.nextInt(floors);
+        int destination = 1 + random.nextInt(floors - 1);
+        if (destination >= origin) {
+            destination++;
+        }
+        
+        waitingPassengers.get(origin - 1).add(new Passenger(origin, destination, time));
+        metrics.recordSpawn();
+        SimulationMetrics window = window(time);
+        if (window != null) {
+            window.recordSpawn();
+        }
+        
+        Floor floor = elevatorSystem.getFloors().get(origin - 1);
+        if (destination > origin) {
+            floor.pressUpButton();
+        } else {
+            floor.pressDownButton();
+        }
+    }
+    
+    // 指数分布的到达间隔(ms)
+    private long nextInterArrivalTime() {
+        double meanInterval = 60000.0 / arrivalsPerMinute;
+        return Math.max(1, (long) (-Math.log(1.0 - random.nextDouble()) * meanInterval));
+    }
+    
+    // 模拟时钟最早的电梯
+    private Elevator earliestElevator() {
+        Elevator earliest = null;
+        for (Elevator elevator : elevatorSystem.getElevators()) {
+            if (earliest == null || elevator.getSimulatedTime() < earliest.getSimulatedTime()) {
+                earliest = elevator;
+            }
+        }
+        return earliest;
+    }
+    
+    public ElevatorSystem getElevatorSystem() {
+        return elevatorSystem;
+    }
+    
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+}
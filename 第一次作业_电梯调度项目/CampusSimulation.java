@@ -0,0 +1,73 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// 园区级多楼宇仿真：每栋楼是一个独立的无头仿真分片，提交到工作窃取线程池并行运行，最后汇总指标
+// 分片内部按模拟时钟推进、不休眠，所以吞吐量随CPU核数增长，不再受每部电梯一个平台线程的限制
+public class CampusSimulation {
+    private final int buildings; // 楼宇数量
+    private final int floorsPerBuilding; // 每栋楼层数
+    private final int elevatorsPerBuilding; // 每栋电梯数
+    private final double arrivalsPerMinute; // 每栋楼每分钟到达乘客数
+    private final long seed; // 随机种子，第 i 栋楼使用 seed + i
+    private final KinematicModel kinematics; // 所有楼宇共享的运动学模型，null 表示默认匀速模型
+    
+    public CampusSimulation(int buildings, int floorsPerBuilding, int elevatorsPerBuilding,
+                            double arrivalsPerMinute, long seed, KinematicModel kinematics) {
+        this.buildings = buildings;
+        this.floorsPerBuilding = floorsPerBuilding;
+        this.elevatorsPerBuilding = elevatorsPerBuilding;
+        this.arrivalsPerMinute = arrivalsPerMinute;
+        this.seed = seed;
+        this.kinematics = kinematics;
+    }
+    
+    // 使用指定并行度运行所有楼宇 duration(ms) 的模拟时间，返回汇总指标
+    public SimulationMetrics run(long duration, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<SimulationMetrics>> shards = new ArrayList<>();
+            for (int i = 0; i < buildings; i++) {
+                final long shardSeed = seed + i;
+                shards.add(pool.submit(() -> new BuildingSimulation(floorsPerBuilding, elevatorsPerBuilding,
+                    arrivalsPerMinute, shardSeed, kinematics).run(duration)));
+            }
+            
+            SimulationMetrics total = new SimulationMetrics();
+            for (ForkJoinTask<SimulationMetrics> shard : shards) {
+                total.merge(shard.join());
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    // 用法: java CampusSimulation [楼宇数] [模拟分钟数] [每分钟乘客数] [层高(m)，0表示匀速演示模型]
+    public static void main(String[] args) {
+        int buildings = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        double arrivalsPerMinute = args.length > 2 ? Double.parseDouble(args[2]) : 6.0;
+        double floorHeight = args.length > 3 ? Double.parseDouble(args[3]) : 3.5;
+        long duration = minutes * 60000L;
+        
+        // 默认使用典型写字楼参数：最高 2.5m/s，加速度 1.0m/s^2，加加速度 1.5m/s^3
+        int floors = ElevatorSystem.getTotalFloors();
+        KinematicModel kinematics = floorHeight > 0
+            ? KinematicModel.uniform(floors, floorHeight, 2.5, 1.0, 1.5)
+            : null;
+        CampusSimulation campus = new CampusSimulation(buildings, floors, 5, arrivalsPerMinute, 2024L, kinematics);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("园区仿真: " + buildings + " 栋楼，每栋模拟 " + minutes + " 分钟，可用核数 " + cores);
+        
+        // 分别用单线程和全部核运行，比较扩展性（结果由种子决定，两次应一致）
+        for (int parallelism : new int[]{1, cores}) {
+            long start = System.nanoTime();
+            SimulationMetrics metrics = campus.run(duration, parallelism);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("并行度 %d: 耗时 %.2fs, %.1f 楼/秒", parallelism, seconds, buildings / seconds));
+            System.out.println("  " + metrics);
+        }
+    }
+}
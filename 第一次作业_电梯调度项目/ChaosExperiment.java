@@ -0,0 +1,89 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// 故障演练：同一批种子分别运行无故障基线和故障注入仿真，按时间窗对比等待时间百分位和吞吐量，
+// 观察故障窗口内调度器的退化程度，以及故障结束后恢复到基线所需的时间
+public class ChaosExperiment {
+    private static final long WINDOW_LENGTH = 5 * 60000L; // 统计时间窗(ms)
+    
+    // 用法: java ChaosExperiment [楼宇数] [模拟分钟数] [每分钟乘客数] [故障开始分钟] [故障结束分钟]
+    public static void main(String[] args) {
+        int buildings = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        double arrivalsPerMinute = args.length > 2 ? Double.parseDouble(args[2]) : 8.0;
+        int faultFrom = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int faultUntil = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+        long duration = minutes * 60000L;
+        
+        System.out.println(String.format("故障演练: %d 栋楼, 模拟 %d 分钟, 每分钟 %.1f 人, 故障窗口 %d-%d 分钟",
+            buildings, minutes, arrivalsPerMinute, faultFrom, faultUntil));
+        
+        List<SimulationMetrics> baseline = run(buildings, arrivalsPerMinute, duration, -1, -1, null);
+        List<FaultInjector> injectors = new ArrayList<>();
+        List<SimulationMetrics> faulted = run(buildings, arrivalsPerMinute, duration,
+            faultFrom * 60000L, faultUntil * 60000L, injectors);
+        
+        System.out.println(String.format("%-12s | %-26s | %-26s", "时间窗(分钟)", "基线 P50/P95等待 吞吐", "故障 P50/P95等待 吞吐"));
+        for (int i = 0; i < Math.max(baseline.size(), faulted.size()); i++) {
+            long start = i * WINDOW_LENGTH / 60000;
+            long end = (i + 1) * WINDOW_LENGTH / 60000;
+            boolean inFaultWindow = start < faultUntil && end > faultFrom;
+            System.out.println(String.format("%4d-%-4d %s | %-26s | %-26s", start, end, inFaultWindow ? "*" : " ",
+                describe(baseline, i), describe(faulted, i)));
+        }
+        
+        int stalls = 0;
+        int doorHolds = 0;
+        int slowdowns = 0;
+        int droppedCalls = 0;
+        for (FaultInjector injector : injectors) {
+            stalls += injector.getStalls();
+            doorHolds += injector.getDoorHolds();
+            slowdowns += injector.getSlowdowns();
+            droppedCalls += injector.getDroppedCalls();
+        }
+        System.out.println(String.format("注入故障合计: 停用 %d 次, 门保持 %d 次, 慢速运行 %d 次, 呼叫丢失 %d 次（* 为故障窗口）",
+            stalls, doorHolds, slowdowns, droppedCalls));
+    }
+    
+    // 运行所有楼宇并按时间窗汇总；injectors 为null时不注入故障
+    private static List<SimulationMetrics> run(int buildings, double arrivalsPerMinute, long duration,
+                                               long faultFrom, long faultUntil, List<FaultInjector> injectors) {
+        List<SimulationMetrics> total = new ArrayList<>();
+        for (int i = 0; i < buildings; i++) {
+            BuildingSimulation simulation = new BuildingSimulation(ElevatorSystem.getTotalFloors(), 5,
+                arrivalsPerMinute, 2024L + i);
+            simulation.setWindowLength(WINDOW_LENGTH);
+            if (injectors != null) {
+                FaultInjector injector = new FaultInjector(7L + i);
+                injector.setActiveWindow(faultFrom, faultUntil);
+                injector.setStalls(2.0, 3 * 60000L); // 每部电梯每小时约2次，每次停用3分钟
+                injector.setDoorHolds(0.05, 8000); // 5%的停靠门被挡住8秒
+                injector.setSlowdowns(2.0, 2.0, 5 * 60000L); // 每小时约2次，运行时间加倍5分钟
+                injector.setDroppedHallCalls(0.1); // 10%的呼叫信号丢失
+                simulation.setFaultInjector(injector);
+                injectors.add(injector);
+            }
+            simulation.run(duration);
+            
+            List<SimulationMetrics> windows = simulation.getWindowMetrics();
+            for (int w = 0; w < windows.size(); w++) {
+                if (total.size() <= w) {
+                    total.add(new SimulationMetrics());
+                }
+                total.get(w).merge(windows.get(w));
+            }
+        }
+        return total;
+    }
+    
+    private static String describe(List<SimulationMetrics> windows, int index) {
+        if (index >= windows.size()) {
+            return "-";
+        }
+        SimulationMetrics metrics = windows.get(index);
+        return String.format("%3ds / %3ds  %5.0f人/楼/时",
+            metrics.getWaitPercentileSeconds(0.5), metrics.getWaitPercentileSeconds(0.95),
+            metrics.getDeliveriesPerBuildingHour());
+    }
+}
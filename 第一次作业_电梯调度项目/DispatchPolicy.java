@@ -0,0 +1,91 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+// 调度策略权重：行程表插入代价中各项的权重，可由 PolicyOptimizer 离线调优后写入策略文件
+// 默认值与原有的插入代价完全一致；不可变，可被多栋楼共享
+public class DispatchPolicy {
+    public static final String DEFAULT_FILE = "dispatch-policy.properties"; // 默认策略文件
+    public static final String FILE_PROPERTY = "elevator.policy"; // 指定策略文件路径的系统属性
+    
+    private static DispatchPolicy defaultPolicy; // 启动时加载的策略，首次使用时加载
+    
+    private final long wrongWayPenalty; // 外部呼叫乘客被先带往反方向的惩罚(ms)
+    private final double pickupWeight; // 新呼叫自身预计到达时间的额外权重（0表示与其他停靠点同等对待）
+    private final long loadPenalty; // 电梯行程表中每个已有停靠点的惩罚(ms)，用于均衡各电梯负载
+    
+    public DispatchPolicy(long wrongWayPenalty, double pickupWeight, long loadPenalty) {
+        if (wrongWayPenalty < 0 || pickupWeight < 0 || loadPenalty < 0) {
+            throw new IllegalArgumentException("调度策略权重不能为负数");
+        }
+        this.wrongWayPenalty = wrongWayPenalty;
+        this.pickupWeight = pickupWeight;
+        this.loadPenalty = loadPenalty;
+    }
+    
+    public static DispatchPolicy defaults() {
+        return new DispatchPolicy(10000, 0.0, 0);
+    }
+    
+    // 启动时使用的策略：读取系统属性 elevator.policy 指定的文件（默认为当前目录下的 dispatch-policy.properties），
+    // 文件不存在或格式错误时使用默认权重；只加载一次
+    public static synchronized DispatchPolicy getDefault() {
+        if (defaultPolicy == null) {
+            File file = new File(System.getProperty(FILE_PROPERTY, DEFAULT_FILE));
+            defaultPolicy = defaults();
+            if (file.isFile()) {
+                try {
+                    defaultPolicy = load(file);
+                    System.out.println("已加载调度策略 " + file + ": " + defaultPolicy);
+                } catch (IOException | IllegalArgumentException e) {
+                    System.out.println("调度策略文件 " + file + " 无效，使用默认策略: " + e.getMessage());
+                }
+            }
+        }
+        return defaultPolicy;
+    }
+    
+    // 从属性文件读取策略，缺少的项取默认值
+    public static DispatchPolicy load(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        DispatchPolicy defaults = defaults();
+        return new DispatchPolicy(
+            Long.parseLong(properties.getProperty("wrongWayPenalty", String.valueOf(defaults.wrongWayPenalty)).trim()),
+            Double.parseDouble(properties.getProperty("pickupWeight", String.valueOf(defaults.pickupWeight)).trim()),
+            Long.parseLong(properties.getProperty("loadPenalty", String.valueOf(defaults.loadPenalty)).trim()));
+    }
+    
+    public void save(File file, String comment) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("wrongWayPenalty", String.valueOf(wrongWayPenalty));
+        properties.setProperty("pickupWeight", String.valueOf(pickupWeight));
+        properties.setProperty("loadPenalty", String.valueOf(loadPenalty));
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, comment);
+        }
+    }
+    
+    public long getWrongWayPenalty() {
+        return wrongWayPenalty;
+    }
+    
+    public double getPickupWeight() {
+        return pickupWeight;
+    }
+    
+    public long getLoadPenalty() {
+        return loadPenalty;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("反向惩罚 %dms, 接客权重 %.2f, 负载惩罚 %dms/站", wrongWayPenalty, pickupWeight, loadPenalty);
+    }
+}
@@ -1,4 +1,3 @@
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -8,14 +7,13 @@ public class Elevator implements Runnable {
     private int currentFloor; // 当前楼层
     private Direction direction; // 当前方向
     private ElevatorState state; // 电梯状态
-    private List<Integer> requestedFloors; // 请求楼层列表
+    private Itinerary itinerary; // 行程表：按计划顺序排列的全部停靠点
     private ElevatorSystem elevatorSystem; // 电梯系统引用
     private final Lock lock = new ReentrantLock(); // 锁，用于线程安全
-    private Direction outsideCallDirection; // 外部呼叫的方向（用于电梯到达楼层后确定下一步方向）
     private boolean alarmed = false; // 电梯是否处于报警状态
+    private long simulatedTime = 0; // 无头模式下本电梯的模拟时钟(ms)
     
     // 移动和门操作的模拟时间参数 - 减少以加快GUI响应
-    private static final int FLOOR_MOVE_TIME = 500; // 每层移动时间(ms)，从1000减少到300
     private static final int DOOR_OPEN_TIME = 500; // 开门时间(ms)，从1000减少到500
     private static final int DOOR_WAIT_TIME = 1000; // 门保持开启时间(ms)，从2000减少到1000
     private static final int DOOR_CLOSE_TIME = 500; // 关门时间(ms)，从1000减少到500
@@ -26,33 +24,46 @@ public class Elevator implements Runnable {
         this.currentFloor = 1; // 初始在第一层
         this.direction = Direction.IDLE;
         this.state = ElevatorState.STOPPED;
-        this.requestedFloors = new ArrayList<>();
+        this.itinerary = new Itinerary(elevatorSystem.getKinematics(), elevatorSystem.getDispatchPolicy(),
+            DOOR_OPEN_TIME + DOOR_WAIT_TIME + DOOR_CLOSE_TIME);
         this.elevatorSystem = elevatorSystem;
-        this.outsideCallDirection = Direction.IDLE;
     }
     
-    // 设置外部呼叫的方向
-    public void setOutsideCallDirection(Direction direction) {
-        this.outsideCallDirection = direction;
-        System.out.println("电梯 " + id + " 接收到方向为 " + (direction == Direction.UP ? "上行" : "下行") + " 的外部呼叫");
+    // 接受外部呼叫：以最小插入代价加入行程表
+    public void assignHallCall(int floor, Direction callDirection) {
+        lock.lock();
+        try {
+            if (itinerary.insert(currentFloor, floor, callDirection)) {
+                elevatorSystem.log("电梯 " + id + " 接收到 " + floor + " 层方向为 " +
+                    (callDirection == Direction.UP ? "上行" : "下行") + " 的外部呼叫");
+                updateIdleDirection();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // 外部呼叫插入本电梯行程表的边际代价(ms)，供调度器比较各电梯
+    public long insertionCost(int floor, Direction callDirection) {
+        lock.lock();
+        try {
+            return itinerary.insertionCost(currentFloor, floor, callDirection);
+        } finally {
+            lock.unlock();
+        }
     }
     
     // 按下楼层按钮
     public void pressFloorButton(int floor) {
         lock.lock();
         try {
-            if (!requestedFloors.contains(floor) && floor != currentFloor) {
-                requestedFloors.add(floor);
-                System.out.println("电梯 " + id + " 接收到前往 " + floor + " 层的请求");
-                
-                // 判断方向
-                if (direction == Direction.IDLE) {
-                    if (floor > currentFloor) {
-                        direction = Direction.UP;
-                    } else {
-                        direction = Direction.DOWN;
-                    }
-                }
+            // 电梯正停在该层时忽略内部按钮
+            if (floor == currentFloor && state != ElevatorState.MOVING) {
+                return;
+            }
+            if (itinerary.insert(currentFloor, floor, Direction.IDLE)) {
+                elevatorSystem.log("电梯 " + id + " 接收到前往 " + floor + " 层的请求");
+                updateIdleDirection();
                 
                 // 通知其他电梯
                 elevatorSystem.syncRequest(this, floor);
@@ -62,28 +73,60 @@ public class Elevator implements Runnable {
         }
     }
     
+    // 撤销某层某方向的外部呼叫（已由其他电梯顺路服务）
+    public void cancelHallCall(int floor, Direction callDirection) {
+        lock.lock();
+        try {
+            itinerary.removeHallCall(floor, callDirection);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // 交出行程表中的全部外部呼叫（电梯故障停用时由呼叫巡检改派给其他电梯）
+    public void releaseHallCalls() {
+        lock.lock();
+        try {
+            itinerary.removeHallCalls();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // 空闲电梯收到新停靠点后，方向设为朝向行程表首站
+    private void updateIdleDirection() {
+        Itinerary.Stop next = itinerary.peek();
+        if (direction == Direction.IDLE && next != null && next.getFloor() != currentFloor) {
+            direction = next.getFloor() > currentFloor ? Direction.UP : Direction.DOWN;
+        }
+    }
+    
     // 开门 - 修改为不阻塞UI线程，不自动关门，允许在报警状态下操作
     public void openDoor() {
         // 修改条件，即使在报警状态也允许开门，但不能在移动中开门
         if (state != ElevatorState.MOVING) {
             state = ElevatorState.DOOR_OPENING;
             String message = "电梯 " + id + " 在 " + currentFloor + " 层开门" + (alarmed ? "（报警状态）" : "");
-            System.out.println(message);
-            ElevatorGUI.logMessage(message);
+            elevatorSystem.log(message);
             
-            // 使用新线程执行开门操作，不阻塞UI
-            new Thread(() -> {
+            // 无头模式下没有人工关门，直接在模拟时钟上走完整个开关门周期
+            if (elevatorSystem.isHeadless()) {
+                runDoorCycle();
+                return;
+            }
+            
+            // 使用门控定时线程执行开门操作，不阻塞UI
+            elevatorSystem.runDoorTask(() -> {
                 try {
-                    Thread.sleep(DOOR_OPEN_TIME); // 模拟开门时间
+                    delay(DOOR_OPEN_TIME); // 模拟开门时间
                     state = ElevatorState.DOOR_OPENED;
                     String doorOpenedMsg = "电梯 " + id + " 在 " + currentFloor + " 层门已完全打开";
-                    System.out.println(doorOpenedMsg);
-                    ElevatorGUI.logMessage(doorOpenedMsg);
+                    elevatorSystem.log(doorOpenedMsg);
                     // 不再自动关门
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                 }
-            }).start();
+            });
         }
     }
     
@@ -93,141 +136,153 @@ public class Elevator implements Runnable {
         if (state == ElevatorState.DOOR_OPENED) {
             state = ElevatorState.DOOR_CLOSING;
             String message = "电梯 " + id + " 在 " + currentFloor + " 层关门" + (alarmed ? "（报警状态）" : "");
-            System.out.println(message);
-            ElevatorGUI.logMessage(message);
+            elevatorSystem.log(message);
             
-            // 使用新线程执行关门操作，不阻塞UI
-            new Thread(() -> {
+            // 使用门控定时线程执行关门操作，不阻塞UI
+            elevatorSystem.runDoorTask(() -> {
                 try {
-                    Thread.sleep(DOOR_CLOSE_TIME); // 模拟关门时间
+                    delay(DOOR_CLOSE_TIME); // 模拟关门时间
                     state = ElevatorState.STOPPED;
                     String doorClosedMsg = "电梯 " + id + " 在 " + currentFloor + " 层门已完全关闭";
-                    System.out.println(doorClosedMsg);
-                    ElevatorGUI.logMessage(doorClosedMsg);
+                    elevatorSystem.log(doorClosedMsg);
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                 }
-            }).start();
+            });
         }
     }
     
-    // 移动到指定楼层
-    private void moveToFloor(int targetFloor) {
-        if (currentFloor == targetFloor) return;
+    // 沿行程表逐层移动到首站所在楼层：每经过一层都重新查看首站，途中插入的更近停靠点会被顺路服务；
+    // 报警或行程被清空时返回null
+    private Itinerary.Stop moveToNextStop() throws InterruptedException {
+        Itinerary.Stop stop = nextStop();
+        if (stop == null || stop.getFloor() == currentFloor) {
+            return stop;
+        }
         
         state = ElevatorState.MOVING;
-        direction = (targetFloor > currentFloor) ? Direction.UP : Direction.DOWN;
-        
+        direction = (stop.getFloor() > currentFloor) ? Direction.UP : Direction.DOWN;
         String message = "电梯 " + id + " 从 " + currentFloor + " 层" + 
-                       (direction == Direction.UP ? "上行" : "下行") + "至 " + targetFloor + " 层";
-        System.out.println(message);
-        ElevatorGUI.logMessage(message);
+                       (direction == Direction.UP ? "上行" : "下行") + "至 " + stop.getFloor() + " 层";
+        elevatorSystem.log(message);
         
-        // 模拟电梯移动
+        // 模拟电梯移动：按运动学模型得到经过每层的时间；途中目标改变时从当前楼层重新规划速度曲线
+        KinematicModel kinematics = elevatorSystem.getKinematics();
+        int tripStart = currentFloor;
+        int tripTarget = stop.getFloor();
+        long[] passTimes = kinematics.floorPassTimes(tripStart, tripTarget);
+        long elapsed = 0;
         try {
-            while (currentFloor != targetFloor) {
-                Thread.sleep(FLOOR_MOVE_TIME); // 每层楼移动的时间 - 减少为300ms提高响应速度
+            while (stop != null && stop.getFloor() != currentFloor) {
+                if (stop.getFloor() != tripTarget) {
+                    tripStart = currentFloor;
+                    tripTarget = stop.getFloor();
+                    passTimes = kinematics.floorPassTimes(tripStart, tripTarget);
+                    elapsed = 0;
+                }
+                direction = (stop.getFloor() > currentFloor) ? Direction.UP : Direction.DOWN;
+                long passTime = passTimes[Math.abs(currentFloor - tripStart)];
+                delay(Math.round((passTime - elapsed) * elevatorSystem.motionFactor(this))); // 运行到下一层的时间
+                elapsed = passTime;
                 currentFloor += (direction == Direction.UP) ? 1 : -1;
                 String posMsg = "电梯 " + id + " 当前位置：" + currentFloor + " 层";
-                System.out.println(posMsg);
-                ElevatorGUI.logMessage(posMsg);
+                elevatorSystem.log(posMsg);
+                stop = nextStop();
             }
+        } finally {
             state = ElevatorState.STOPPED;
-            
-            // 通知当前楼层电梯已到达
-            elevatorSystem.getFloors().get(currentFloor - 1).elevatorArrived(direction);
-            
-            // 如果是响应外部呼叫，则设置下一步方向
-            if (outsideCallDirection != Direction.IDLE) {
-                direction = outsideCallDirection;
-                String dirMsg = "电梯 " + id + " 响应外部呼叫，下一步方向设为: " + 
-                              (direction == Direction.UP ? "上行" : "下行");
-                System.out.println(dirMsg);
-                ElevatorGUI.logMessage(dirMsg);
-                outsideCallDirection = Direction.IDLE; // 重置
-            }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
         }
+        return stop;
     }
     
-    // 处理请求
-    private void processRequests() {
+    // 行程表首站；报警状态下返回null
+    private Itinerary.Stop nextStop() {
         lock.lock();
         try {
-            // 如果电梯处于报警状态，不处理任何请求
-            if (alarmed) {
-                return;
-            }
-            
-            if (!requestedFloors.isEmpty()) {
-                // 使用LOOK算法寻找下一个目标楼层
-                int nextFloor = findNextFloorUsingLOOK();
-                if (nextFloor != -1) {
-                    moveToFloor(nextFloor);
-                    requestedFloors.remove(Integer.valueOf(nextFloor));
-                    openDoor();
-                }
-            } else {
-                direction = Direction.IDLE; // 没有请求时设为空闲状态
-            }
+            return alarmed ? null : itinerary.peek();
         } finally {
             lock.unlock();
         }
     }
     
-    // 寻找下一个要去的楼层
-    private int findNextFloorUsingLOOK() {
-        if (requestedFloors.isEmpty()) return -1;
-        
-        // 如果是空闲状态，选择最近的楼层
-        if (direction == Direction.IDLE) {
-            int closest = requestedFloors.get(0);
-            int minDistance = Math.abs(closest - currentFloor);
-            
-            for (int floor : requestedFloors) {
-                int distance = Math.abs(floor - currentFloor);
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    closest = floor;
-                }
+    // 到达首站：移除本层的停靠点，确定离开方向（外部呼叫方向优先），通知楼层并开门
+    private void arriveAtCurrentFloor() {
+        Direction departure;
+        lock.lock();
+        try {
+            Direction hallDirection = itinerary.removeLeadingStopsAt(currentFloor);
+            Itinerary.Stop next = itinerary.peek();
+            if (hallDirection != Direction.IDLE) {
+                departure = hallDirection;
+            } else if (next != null && next.getFloor() != currentFloor) {
+                departure = next.getFloor() > currentFloor ? Direction.UP : Direction.DOWN;
+            } else {
+                departure = direction;
             }
-            
-            // 确定前进方向
-            direction = (closest > currentFloor) ? Direction.UP : Direction.DOWN;
-            return closest;
+            direction = departure;
+        } finally {
+            lock.unlock();
         }
         
-        // 按当前方向寻找目标楼层
-        int nextFloor = -1;
-        int minDistance = Integer.MAX_VALUE;
+        // 通知当前楼层电梯已到达（回调中乘客可能按下新的内部按钮，因此在锁外调用）
+        elevatorSystem.elevatorArrived(this, currentFloor, departure);
+        openDoor();
+    }
+    
+    // 处理请求，返回本次是否停靠了某个楼层
+    private boolean processRequests() {
+        if (alarmed) {
+            return false;
+        }
         
-        // 先检查当前方向上的请求
-        for (int floor : requestedFloors) {
-            if ((direction == Direction.UP && floor >= currentFloor) || 
-                (direction == Direction.DOWN && floor <= currentFloor)) {
-                int distance = Math.abs(floor - currentFloor);
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    nextFloor = floor;
+        try {
+            Itinerary.Stop stop = moveToNextStop();
+            if (stop == null) {
+                lock.lock();
+                try {
+                    if (itinerary.isEmpty()) {
+                        direction = Direction.IDLE; // 没有请求时设为空闲状态
+                    }
+                } finally {
+                    lock.unlock();
                 }
+                return false;
             }
+            arriveAtCurrentFloor();
+            return true;
+        } catch (InterruptedException e) {
+            // 系统关闭时被中断，保留中断状态让 run() 循环退出
+            Thread.currentThread().interrupt();
+            return false;
         }
-        
-        // 如果当前方向没有更多请求，则改变方向
-        if (nextFloor == -1) {
-            direction = (direction == Direction.UP) ? Direction.DOWN : Direction.UP;
-            String dirChangeMsg = "电梯 " + id + " 无更多 " + 
-                             (direction == Direction.DOWN ? "上行" : "下行") + " 请求，改变方向为 " +
-                             (direction == Direction.UP ? "上行" : "下行");
-            System.out.println(dirChangeMsg);
-            ElevatorGUI.logMessage(dirChangeMsg);
-            
-            // 在新方向上寻找最近的请求
-            return findNextFloorUsingLOOK();
+    }
+    
+    // 无头模式单步推进：处理一次请求，空闲或报警时把模拟时钟向前推进一个检查间隔
+    public void step() {
+        if (!processRequests()) {
+            simulatedTime += CHECK_INTERVAL;
         }
-        
-        return nextFloor;
+    }
+    
+    // 模拟耗时操作：实时模式下休眠并记录唤醒延迟，无头模式下只推进本电梯的模拟时钟
+    private void delay(long millis) throws InterruptedException {
+        if (elevatorSystem.isHeadless()) {
+            simulatedTime += millis;
+        } else {
+            long wakeUpAt = System.nanoTime() + millis * 1000000L;
+            Thread.sleep(millis);
+            elevatorSystem.getWakeUpLatency().record(System.nanoTime() - wakeUpAt);
+        }
+    }
+    
+    // 无头模式下的完整开关门周期：开门 -> 保持 -> 关门
+    private void runDoorCycle() {
+        simulatedTime += DOOR_OPEN_TIME;
+        state = ElevatorState.DOOR_OPENED;
+        simulatedTime += DOOR_WAIT_TIME + elevatorSystem.doorHoldTime(this);
+        state = ElevatorState.DOOR_CLOSING;
+        simulatedTime += DOOR_CLOSE_TIME;
+        state = ElevatorState.STOPPED;
     }
     
     // 报警功能 - 触发电梯报警
@@ -240,8 +295,7 @@ public class Elevator implements Runnable {
                 state = ElevatorState.STOPPED;
             }
             String alarmMsg = "电梯 " + id + " 触发报警！电梯已停止运行";
-            System.out.println(alarmMsg);
-            ElevatorGUI.logMessage(alarmMsg);
+            elevatorSystem.log(alarmMsg);
         } finally {
             lock.unlock();
         }
@@ -253,8 +307,7 @@ public class Elevator implements Runnable {
         try {
             alarmed = false;
             String resetMsg = "电梯 " + id + " 报警已重置，电梯恢复运行";
-            System.out.println(resetMsg);
-            ElevatorGUI.logMessage(resetMsg);
+            elevatorSystem.log(resetMsg);
         } finally {
             lock.unlock();
         }
@@ -263,17 +316,16 @@ public class Elevator implements Runnable {
     // 线程运行方法
     @Override
     public void run() {
-        while (true) {
+        while (!Thread.currentThread().isInterrupted()) {
             // 只有在非报警状态下才处理请求
             if (!alarmed) {
                 processRequests();
             }
             
             try {
-                Thread.sleep(CHECK_INTERVAL); // 定期检查请求 - 减少到100ms提高响应速度
+                delay(CHECK_INTERVAL); // 定期检查请求 - 减少到100ms提高响应速度
             } catch (InterruptedException e) {
-                e.printStackTrace();
-                break;
+                break; // 系统关闭
             }
         }
     }
@@ -296,16 +348,60 @@ public class Elevator implements Runnable {
     }
     
     public List<Integer> getRequestedFloors() {
-        return new ArrayList<>(requestedFloors);
+        lock.lock();
+        try {
+            return itinerary.getFloors();
+        } finally {
+            lock.unlock();
+        }
     }
     
-    public Direction getOutsideCallDirection() {
-        return outsideCallDirection;
+    public List<Itinerary.Stop> getItinerary() {
+        lock.lock();
+        try {
+            return itinerary.getStops();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // 行程表中是否还有停靠点
+    public boolean hasPendingStops() {
+        lock.lock();
+        try {
+            return !itinerary.isEmpty();
+        } finally {
+            lock.unlock();
+        }
     }
     
     public boolean isAlarmed() {
         return alarmed;
     }
+    
+    // 更换运动学模型（由 ElevatorSystem.setKinematics 调用）
+    void setKinematics(KinematicModel kinematics) {
+        lock.lock();
+        try {
+            itinerary.setKinematics(kinematics);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // 更换调度策略（由 ElevatorSystem.setDispatchPolicy 调用）
+    void setDispatchPolicy(DispatchPolicy policy) {
+        lock.lock();
+        try {
+            itinerary.setPolicy(policy);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getSimulatedTime() {
+        return simulatedTime;
+    }
 }
 
 // 电梯方向枚举
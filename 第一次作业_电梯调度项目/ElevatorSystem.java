@@ -1,3 +1,4 @@
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -7,31 +8,85 @@ public class ElevatorSystem {
     private static final int TOTAL_FLOORS = 20; // 总楼层数
     private static final int TOTAL_ELEVATORS = 5; // 电梯数量
     
+    // 电梯到达楼层的回调（无头仿真用于乘客上下梯和统计）
+    public interface ArrivalListener {
+        void elevatorArrived(Elevator elevator, int floor, Direction direction, long time);
+    }
+    
+    private final int floorCount; // 本楼宇楼层数
+    private final int elevatorCount; // 本楼宇电梯数
+    private final boolean headless; // 无头模式：不启动线程、不输出日志，由外部按模拟时钟推进
+    private final ExecutionMode executionMode; // 电梯和门控定时任务使用的线程类型
+    private volatile boolean loggingEnabled = true; // 是否输出运行日志（压力测试时关闭）
+    private final LatencyRecorder wakeUpLatency = new LatencyRecorder(); // 休眠唤醒延迟统计
+    private volatile KinematicModel kinematics; // 电梯运动学模型，决定运行耗时和调度到达时间估计
+    private volatile DispatchPolicy dispatchPolicy; // 调度代价权重，启动时从策略文件加载
+    private final MetricsRegistry metrics; // 实时运行指标（呼叫等待、吞吐量、排队深度）
+    private final HallCallRegistry hallCalls; // 外部呼叫登记表，保证每个呼叫只派一部电梯
     private List<Elevator> elevators; // 电梯列表
     private List<Floor> floors; // 楼层列表
-    private ExecutorService executorService; // 线程池
+    private ExecutorService executorService; // 线程池（无头模式下为null）
+    private ArrivalListener arrivalListener; // 到达回调，可为null
+    private FaultInjector faultInjector; // 故障注入（仅无头仿真），可为null
     
     public ElevatorSystem() {
+        this(ExecutionMode.PLATFORM);
+    }
+    
+    public ElevatorSystem(ExecutionMode executionMode) {
+        this(TOTAL_FLOORS, TOTAL_ELEVATORS, executionMode);
+    }
+    
+    public ElevatorSystem(int floorCount, int elevatorCount, boolean headless) {
+        this(floorCount, elevatorCount, headless, ExecutionMode.PLATFORM);
+    }
+    
+    public ElevatorSystem(int floorCount, int elevatorCount, ExecutionMode executionMode) {
+        this(floorCount, elevatorCount, false, executionMode);
+    }
+    
+    private ElevatorSystem(int floorCount, int elevatorCount, boolean headless, ExecutionMode executionMode) {
+        this.floorCount = floorCount;
+        this.elevatorCount = elevatorCount;
+        this.headless = headless;
+        // 运行环境不支持虚拟线程（JDK 21 以下）时退回平台线程
+        if (executionMode == ExecutionMode.VIRTUAL && !isVirtualThreadSupported()) {
+            System.out.println("当前JDK不支持虚拟线程，改用平台线程池");
+            executionMode = ExecutionMode.PLATFORM;
+        }
+        this.executionMode = executionMode;
+        this.kinematics = KinematicModel.constantFloorTime(floorCount, KinematicModel.DEFAULT_FLOOR_MOVE_TIME);
+        this.dispatchPolicy = DispatchPolicy.getDefault();
+        this.metrics = new MetricsRegistry(floorCount, elevatorCount);
+        this.hallCalls = new HallCallRegistry(floorCount);
         elevators = new ArrayList<>();
         floors = new ArrayList<>();
-        executorService = Executors.newFixedThreadPool(TOTAL_ELEVATORS);
+        if (!headless) {
+            executorService = executionMode == ExecutionMode.VIRTUAL
+                ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(elevatorCount);
+        }
         
         // 初始化楼层
-        for (int i = 1; i <= TOTAL_FLOORS; i++) {
+        for (int i = 1; i <= floorCount; i++) {
             floors.add(new Floor(i, this));
         }
         
         // 初始化电梯
-        for (int i = 1; i <= TOTAL_ELEVATORS; i++) {
+        for (int i = 1; i <= elevatorCount; i++) {
             elevators.add(new Elevator(i, this));
         }
     }
     
     // 启动电梯系统
     public void start() {
-        String startMsg = "电梯系统启动，共 " + TOTAL_ELEVATORS + " 部电梯，" + TOTAL_FLOORS + " 层楼";
-        System.out.println(startMsg);
-        ElevatorGUI.logMessage(startMsg);
+        String startMsg = "电梯系统启动，共 " + elevatorCount + " 部电梯，" + floorCount + " 层楼";
+        log(startMsg);
+        
+        // 无头模式下由调用者调用 Elevator.step() 推进，不启动电梯线程
+        if (headless) {
+            return;
+        }
         
         // 启动所有电梯线程
         for (Elevator elevator : elevators) {
@@ -39,47 +94,154 @@ public class ElevatorSystem {
         }
     }
     
-    // 关闭电梯系统
+    // 关闭电梯系统，中断所有电梯线程
     public void shutdown() {
         String shutdownMsg = "电梯系统关闭";
-        System.out.println(shutdownMsg);
-        ElevatorGUI.logMessage(shutdownMsg);
-        executorService.shutdown();
+        log(shutdownMsg);
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+    
+    // 执行门控定时任务：虚拟线程模式下每个任务一个虚拟线程，平台线程模式下每个任务新建一个线程
+    public void runDoorTask(Runnable task) {
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            executorService.execute(task);
+        } else {
+            new Thread(task).start();
+        }
+    }
+    
+    // 当前JDK是否提供虚拟线程（Executors.newVirtualThreadPerTaskExecutor，JDK 21+）
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    // 通过反射创建虚拟线程执行器，使本项目仍可在 Java 8 下编译
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法创建虚拟线程执行器", e);
+        }
+    }
+    
+    // 输出日志到控制台和GUI日志区；无头模式下静默，避免成百上千栋楼的仿真刷屏
+    public void log(String message) {
+        if (headless || !loggingEnabled) {
+            return;
+        }
+        System.out.println(message);
+        ElevatorGUI.logMessage(message);
+    }
+    
+    // 电梯到达某层：熄灭离开方向的按钮并通知到达回调
+    public void elevatorArrived(Elevator elevator, int floorNumber, Direction direction) {
+        boolean[] served = floors.get(floorNumber - 1).elevatorArrived(elevator, direction);
+        if (!headless) {
+            long now = System.currentTimeMillis();
+            if (served[0]) {
+                metrics.recordHallCallServed(floorNumber, Direction.UP, now);
+            }
+            if (served[1]) {
+                metrics.recordHallCallServed(floorNumber, Direction.DOWN, now);
+            }
+        }
+        if (arrivalListener != null) {
+            arrivalListener.elevatorArrived(elevator, floorNumber, direction, elevator.getSimulatedTime());
+        }
+    }
+    
+    // 呼叫巡检：收回报警电梯上的外部呼叫，并为仍已登记但没有正常电梯负责的呼叫重新派梯，
+    // 用于从呼叫信号丢失、电梯故障停用中恢复；返回重新派梯的呼叫数
+    public int auditHallCalls() {
+        boolean[][] covered = new boolean[floorCount][2]; // [楼层][0-上行/1-下行] 是否已有电梯负责
+        for (Elevator elevator : elevators) {
+            if (elevator.isAlarmed()) {
+                elevator.releaseHallCalls();
+                continue;
+            }
+            for (Itinerary.Stop stop : elevator.getItinerary()) {
+                if (stop.getHallDirection() != Direction.IDLE) {
+                    covered[stop.getFloor() - 1][stop.getHallDirection() == Direction.UP ? 0 : 1] = true;
+                }
+            }
+        }
+        
+        int redispatched = 0;
+        for (int floor = 1; floor <= floorCount; floor++) {
+            for (Direction direction : new Direction[]{Direction.UP, Direction.DOWN}) {
+                boolean isCovered = covered[floor - 1][direction == Direction.UP ? 0 : 1];
+                if (!isCovered && hallCalls.reclaim(floor, direction)) {
+                    requestElevator(floor, direction);
+                    redispatched++;
+                }
+            }
+        }
+        return redispatched;
+    }
+    
+    // 故障注入附加的门保持时间(ms)
+    long doorHoldTime(Elevator elevator) {
+        return faultInjector == null ? 0 : faultInjector.doorHoldTime(elevator);
+    }
+    
+    // 故障注入的运行时间倍率，正常为1
+    double motionFactor(Elevator elevator) {
+        return faultInjector == null ? 1.0 : faultInjector.motionFactor(elevator);
+    }
+    
+    // 记录一次呼梯按钮按下（包括重复按下）；无头仿真由 SimulationMetrics 按模拟时钟统计，这里不记录
+    public void recordHallCall(int floorNumber, Direction direction) {
+        if (!headless) {
+            metrics.recordHallCall(floorNumber, direction, System.currentTimeMillis());
+        }
     }
     
     // 从楼层按下上行或下行按钮
     public void requestElevator(int floorNumber, Direction direction) {
         String requestMsg = floorNumber + " 层请求 " + (direction == Direction.UP ? "上行" : "下行") + " 电梯";
-        System.out.println(requestMsg);
-        ElevatorGUI.logMessage(requestMsg);
+        log(requestMsg);
         
-        // 选择最合适的电梯处理请求
-        Elevator bestElevator = findBestElevatorUsingLOOK(floorNumber, direction);
+        // 故障注入：呼叫信号丢失，按钮保持点亮，等待呼叫巡检重新登记
+        if (faultInjector != null && faultInjector.dropHallCall(floorNumber, direction)) {
+            log(floorNumber + " 层呼叫信号丢失");
+            return;
+        }
+        
+        // 选择最合适的电梯处理请求，呼叫带方向插入该电梯的行程表
+        // 认领失败说明呼叫已被并发派梯或已被服务，不再重复分配
+        Elevator bestElevator = findBestElevator(floorNumber, direction);
         if (bestElevator != null) {
-            bestElevator.pressFloorButton(floorNumber);
-            // 电梯到达后将根据呼叫方向调整自己的下一步行进方向
-            bestElevator.setOutsideCallDirection(direction);
+            if (hallCalls.claim(floorNumber, direction, bestElevator.getId())) {
+                bestElevator.assignHallCall(floorNumber, direction);
+            }
         } else {
             // 如果没有找到合适的电梯（所有电梯都处于报警状态），可以在这里添加额外处理
             String noElevatorMsg = "无法分配电梯响应请求，请等待电梯恢复正常";
-            System.out.println(noElevatorMsg);
-            ElevatorGUI.logMessage(noElevatorMsg);
+            log(noElevatorMsg);
         }
     }
     
     // 同步请求到其他电梯（实现电梯按钮互联功能）
     public void syncRequest(Elevator sourceElevator, int targetFloor) {
         String syncMsg = "同步显示：电梯 " + sourceElevator.getId() + " 前往 " + targetFloor + " 层的请求灯点亮";
-        System.out.println(syncMsg);
-        ElevatorGUI.logMessage(syncMsg);
+        log(syncMsg);
         // 此处仅同步显示，不实际发送请求到其他电梯
     }
     
-    // 使用LOOK算法寻找最合适的电梯处理请求
-    private Elevator findBestElevatorUsingLOOK(int requestedFloor, Direction requestedDirection) {
-        // 候选电梯及其评分
+    // 选择插入代价最小的电梯处理请求：代价为把该呼叫插入电梯行程表后，
+    // 行程表中所有停靠点预计到达时间之和的增量
+    private Elevator findBestElevator(int requestedFloor, Direction requestedDirection) {
+        // 候选电梯及其代价
         Elevator selectedElevator = null;
-        int lowestScore = Integer.MAX_VALUE;
+        long lowestCost = Long.MAX_VALUE;
         
         for (Elevator elevator : elevators) {
             // 跳过处于报警状态的电梯
@@ -87,10 +249,10 @@ public class ElevatorSystem {
                 continue;
             }
             
-            int score = calculateLOOKScore(elevator, requestedFloor, requestedDirection);
+            long cost = elevator.insertionCost(requestedFloor, requestedDirection);
             
-            if (score < lowestScore) {
-                lowestScore = score;
+            if (cost < lowestCost) {
+                lowestCost = cost;
                 selectedElevator = elevator;
             }
         }
@@ -98,96 +260,17 @@ public class ElevatorSystem {
         // 如果所有电梯都处于报警状态，返回null
         if (selectedElevator == null) {
             String alarmedMsg = "所有电梯都处于报警状态，无法响应 " + requestedFloor + " 层的请求";
-            System.out.println(alarmedMsg);
-            ElevatorGUI.logMessage(alarmedMsg);
+            log(alarmedMsg);
             return null;
         }
         
-        String selectedMsg = "LOOK算法选择电梯 " + selectedElevator.getId() + " 响应 " + requestedFloor + " 层的" + 
-                          (requestedDirection == Direction.UP ? "上行" : "下行") + "请求";
-        System.out.println(selectedMsg);
-        ElevatorGUI.logMessage(selectedMsg);
+        String selectedMsg = "行程规划选择电梯 " + selectedElevator.getId() + " 响应 " + requestedFloor + " 层的" + 
+                          (requestedDirection == Direction.UP ? "上行" : "下行") + "请求（插入代价 " + lowestCost + "ms）";
+        log(selectedMsg);
         
         return selectedElevator;
     }
     
-    // 计算LOOK算法下电梯的评分（分数越低越优先）
-    private int calculateLOOKScore(Elevator elevator, int requestedFloor, Direction requestedDirection) {
-        int currentFloor = elevator.getCurrentFloor();
-        Direction elevatorDirection = elevator.getDirection();
-        int score = 0;
-        
-        // 基础分数：距离
-        score = Math.abs(currentFloor - requestedFloor) * 2;
-        
-        // 电梯静止时，直接使用距离作为分数
-        if (elevatorDirection == Direction.IDLE) {
-            return score;
-        }
-        
-        // 根据LOOK算法，优先考虑电梯行进方向上的请求
-        if (elevatorDirection == Direction.UP) {
-            if (requestedFloor >= currentFloor) {
-                // 电梯向上且请求在当前楼层或上方
-                if (requestedDirection == Direction.UP) {
-                    // 请求也是向上，非常匹配
-                    score -= 10;
-                } else {
-                    // 请求向下，稍微不匹配但仍可接受
-                    score -= 5;
-                }
-            } else {
-                // 电梯向上但请求在下方，需要改变方向
-                score += 20;
-                if (requestedDirection == Direction.DOWN) {
-                    // 如果请求也是向下，至少方向会匹配
-                    score -= 2;
-                }
-            }
-        } else if (elevatorDirection == Direction.DOWN) {
-            if (requestedFloor <= currentFloor) {
-                // 电梯向下且请求在当前楼层或下方
-                if (requestedDirection == Direction.DOWN) {
-                    // 请求也是向下，非常匹配
-                    score -= 10;
-                } else {
-                    // 请求向上，稍微不匹配但仍可接受
-                    score -= 5;
-                }
-            } else {
-                // 电梯向下但请求在上方，需要改变方向
-                score += 20;
-                if (requestedDirection == Direction.UP) {
-                    // 如果请求也是向上，至少方向会匹配
-                    score -= 2;
-                }
-            }
-        }
-        
-        // 考虑电梯当前状态
-        switch (elevator.getState()) {
-            case MOVING:
-                // 移动中的电梯有一定惯性，稍微增加分数
-                score += 2;
-                break;
-            case STOPPED:
-                // 停止的电梯可以立即响应，稍微降低分数
-                score -= 2;
-                break;
-            case DOOR_OPENING:
-            case DOOR_OPENED:
-            case DOOR_CLOSING:
-                // 正在处理乘客的电梯，增加分数
-                score += 5;
-                break;
-        }
-        
-        // 考虑电梯已有请求数量，请求越多分数越高
-        score += elevator.getRequestedFloors().size() * 3;
-        
-        return score;
-    }
-    
     // Getter 方法
     public List<Elevator> getElevators() {
         return elevators;
@@ -201,6 +284,77 @@ public class ElevatorSystem {
         return TOTAL_FLOORS;
     }
     
+    public int getFloorCount() {
+        return floorCount;
+    }
+    
+    public boolean isHeadless() {
+        return headless;
+    }
+    
+    public void setArrivalListener(ArrivalListener arrivalListener) {
+        this.arrivalListener = arrivalListener;
+    }
+    
+    public KinematicModel getKinematics() {
+        return kinematics;
+    }
+    
+    // 更换运动学模型，应在 start() 之前调用；模型楼层数必须与本楼一致
+    public void setKinematics(KinematicModel kinematics) {
+        if (kinematics.getFloors() != floorCount) {
+            throw new IllegalArgumentException("运动学模型楼层数 " + kinematics.getFloors() + " 与楼宇楼层数 " + floorCount + " 不一致");
+        }
+        this.kinematics = kinematics;
+        for (Elevator elevator : elevators) {
+            elevator.setKinematics(kinematics);
+        }
+    }
+    
+    public DispatchPolicy getDispatchPolicy() {
+        return dispatchPolicy;
+    }
+    
+    // 更换调度策略（离线调优时为每个候选策略单独设置），应在 start() 之前调用
+    public void setDispatchPolicy(DispatchPolicy dispatchPolicy) {
+        this.dispatchPolicy = dispatchPolicy;
+        for (Elevator elevator : elevators) {
+            elevator.setDispatchPolicy(dispatchPolicy);
+        }
+    }
+    
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+    
+    public void setLoggingEnabled(boolean loggingEnabled) {
+        this.loggingEnabled = loggingEnabled;
+    }
+    
+    public HallCallRegistry getHallCalls() {
+        return hallCalls;
+    }
+    
+    public FaultInjector getFaultInjector() {
+        return faultInjector;
+    }
+    
+    // 故障注入器不是线程安全的，只能用于无头模式
+    public void setFaultInjector(FaultInjector faultInjector) {
+        if (faultInjector != null && !headless) {
+            throw new IllegalStateException("故障注入只支持无头模式");
+        }
+        this.faultInjector = faultInjector;
+    }
+    
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+    
+    public LatencyRecorder getWakeUpLatency() {
+        return wakeUpLatency;
+    }
+    
     // 检查是否所有电梯都处于报警状态
     public boolean areAllElevatorsAlarmed() {
         for (Elevator elevator : elevators) {
@@ -210,4 +364,10 @@ public class ElevatorSystem {
         }
         return true;
     }
+}
+
+// 电梯线程执行模式
+enum ExecutionMode {
+    PLATFORM, // 固定大小的平台线程池，每部电梯占用一个操作系统线程
+    VIRTUAL // 每部电梯、每个门控定时任务一个虚拟线程（需要 JDK 21+）
 } 
\ No newline at end of file
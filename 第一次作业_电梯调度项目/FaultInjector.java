@@ -0,0 +1,151 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// 故障注入器：在无头仿真中按模拟时钟随机注入故障，用于量化调度器在故障下的退化和恢复
+// 支持四类故障：电梯停用（报警一段时间后自动复位）、门保持过久、运行变慢、呼叫信号丢失
+// 只在 [activeFrom, activeUntil) 时间窗内注入新故障；按种子生成，可复现；非线程安全
+public class FaultInjector {
+    private final Random random;
+    private long activeFrom = 0; // 注入窗口开始时间(ms)
+    private long activeUntil = Long.MAX_VALUE; // 注入窗口结束时间(ms)
+    
+    private double stallsPerHour; // 每部电梯每小时停用次数
+    private long stallDuration; // 每次停用时长(ms)
+    private double doorHoldProbability; // 每次停靠门被挡住的概率
+    private long doorHoldTime; // 门被挡住时额外保持的时间(ms)
+    private double slowdownsPerHour; // 每部电梯每小时进入慢速运行的次数
+    private double slowdownFactor = 1.0; // 慢速运行时的运行时间倍率
+    private long slowdownDuration; // 每次慢速运行时长(ms)
+    private double dropProbability; // 呼叫信号丢失的概率
+    
+    private long[] lastUpdate = new long[0]; // 每部电梯上次检查的模拟时间
+    private long[] stalledUntil = new long[0]; // 每部电梯停用结束时间，0表示未停用
+    private long[] slowUntil = new long[0]; // 每部电梯慢速运行结束时间
+    private long currentTime; // 最近一次检查的模拟时间，用于判断呼叫丢失是否在注入窗口内
+    
+    // 已注入的故障次数
+    private int stalls;
+    private int doorHolds;
+    private int slowdowns;
+    private int droppedCalls;
+    
+    public FaultInjector(long seed) {
+        this.random = new Random(seed);
+    }
+    
+    // 只在 [from, until) 模拟时间内注入新故障，已发生的停用和慢速运行到期后照常恢复
+    public void setActiveWindow(long from, long until) {
+        this.activeFrom = from;
+        this.activeUntil = until;
+    }
+    
+    public void setStalls(double perHour, long duration) {
+        this.stallsPerHour = perHour;
+        this.stallDuration = duration;
+    }
+    
+    public void setDoorHolds(double probability, long holdTime) {
+        this.doorHoldProbability = probability;
+        this.doorHoldTime = holdTime;
+    }
+    
+    public void setSlowdowns(double perHour, double factor, long duration) {
+        this.slowdownsPerHour = perHour;
+        this.slowdownFactor = factor;
+        this.slowdownDuration = duration;
+    }
+    
+    public void setDroppedHallCalls(double probability) {
+        this.dropProbability = probability;
+    }
+    
+    // 在电梯推进前调用：到期的故障恢复，并按泊松过程决定是否发生新的停用或慢速运行
+    public void update(Elevator elevator, long now) {
+        int index = elevator.getId() - 1;
+        ensureCapacity(index + 1);
+        currentTime = Math.max(currentTime, now);
+        long elapsed = now - lastUpdate[index];
+        lastUpdate[index] = now;
+        
+        if (stalledUntil[index] > 0 && now >= stalledUntil[index]) {
+            stalledUntil[index] = 0;
+            elevator.resetAlarm();
+        }
+        if (!isActive(now) || elapsed <= 0) {
+            return;
+        }
+        
+        if (stalledUntil[index] == 0 && !elevator.isAlarmed() && occurs(stallsPerHour, elapsed)) {
+            stalledUntil[index] = now + stallDuration;
+            stalls++;
+            elevator.triggerAlarm();
+        }
+        if (slowUntil[index] <= now && occurs(slowdownsPerHour, elapsed)) {
+            slowUntil[index] = now + slowdownDuration;
+            slowdowns++;
+        }
+    }
+    
+    // 本次停靠额外的门保持时间(ms)
+    public long doorHoldTime(Elevator elevator) {
+        if (!isActive(elevator.getSimulatedTime()) || random.nextDouble() >= doorHoldProbability) {
+            return 0;
+        }
+        doorHolds++;
+        return doorHoldTime;
+    }
+    
+    // 运行时间倍率：慢速运行期间为 slowdownFactor，否则为1
+    public double motionFactor(Elevator elevator) {
+        int index = elevator.getId() - 1;
+        return index < slowUntil.length && elevator.getSimulatedTime() < slowUntil[index] ? slowdownFactor : 1.0;
+    }
+    
+    // 本次呼叫是否丢失
+    public boolean dropHallCall(int floor, Direction direction) {
+        if (!isActive(currentTime) || random.nextDouble() >= dropProbability) {
+            return false;
+        }
+        droppedCalls++;
+        return true;
+    }
+    
+    private boolean isActive(long time) {
+        return time >= activeFrom && time < activeUntil;
+    }
+    
+    // 泊松过程在 elapsed 时间内至少发生一次的概率
+    private boolean occurs(double perHour, long elapsed) {
+        return perHour > 0 && random.nextDouble() < 1 - Math.exp(-perHour * elapsed / 3600000.0);
+    }
+    
+    private void ensureCapacity(int elevators) {
+        if (lastUpdate.length < elevators) {
+            lastUpdate = Arrays.copyOf(lastUpdate, elevators);
+            stalledUntil = Arrays.copyOf(stalledUntil, elevators);
+            slowUntil = Arrays.copyOf(slowUntil, elevators);
+        }
+    }
+    
+    public int getStalls() {
+        return stalls;
+    }
+    
+    public int getDoorHolds() {
+        return doorHolds;
+    }
+    
+    public int getSlowdowns() {
+        return slowdowns;
+    }
+    
+    public int getDroppedCalls() {
+        return droppedCalls;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("停用 %d 次, 门保持 %d 次, 慢速运行 %d 次, 呼叫丢失 %d 次",
+            stalls, doorHolds, slowdowns, droppedCalls);
+    }
+}
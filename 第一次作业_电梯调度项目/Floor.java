@@ -1,23 +1,19 @@
 public class Floor {
     private int floorNumber; // 楼层号码
-    private boolean upButtonPressed; // 上行按钮状态
-    private boolean downButtonPressed; // 下行按钮状态
-    private ElevatorSystem elevatorSystem; // 电梯系统引用
+    private ElevatorSystem elevatorSystem; // 电梯系统引用（按钮状态由其外部呼叫登记表派生）
     
     public Floor(int floorNumber, ElevatorSystem elevatorSystem) {
         this.floorNumber = floorNumber;
-        this.upButtonPressed = false;
-        this.downButtonPressed = false;
         this.elevatorSystem = elevatorSystem;
     }
     
     // 按下上行按钮
     public void pressUpButton() {
-        if (!upButtonPressed) {
-            upButtonPressed = true;
+        elevatorSystem.recordHallCall(floorNumber, Direction.UP);
+        // 原子登记：并发的重复按下合并为一次呼叫，只有登记成功的一次会派梯
+        if (elevatorSystem.getHallCalls().register(floorNumber, Direction.UP)) {
             String upMsg = floorNumber + " 层按下上行按钮";
-            System.out.println(upMsg);
-            ElevatorGUI.logMessage(upMsg);
+            elevatorSystem.log(upMsg);
             
             // 即使所有电梯都报警，我们仍然更新了按钮状态
             // 通知电梯系统处理上行请求
@@ -27,11 +23,10 @@ public class Floor {
     
     // 按下下行按钮
     public void pressDownButton() {
-        if (!downButtonPressed) {
-            downButtonPressed = true;
+        elevatorSystem.recordHallCall(floorNumber, Direction.DOWN);
+        if (elevatorSystem.getHallCalls().register(floorNumber, Direction.DOWN)) {
             String downMsg = floorNumber + " 层按下下行按钮";
-            System.out.println(downMsg);
-            ElevatorGUI.logMessage(downMsg);
+            elevatorSystem.log(downMsg);
             
             // 即使所有电梯都报警，我们仍然更新了按钮状态
             // 通知电梯系统处理下行请求
@@ -39,31 +34,41 @@ public class Floor {
         }
     }
     
-    // 电梯到达此楼层时调用，重置对应方向的按钮状态
-    public void elevatorArrived(Direction direction) {
-        if (direction == Direction.UP || direction == Direction.IDLE) {
-            resetUpButton();
+    // 电梯到达此楼层并将沿 direction 离开（IDLE 表示两个方向都服务）时调用，
+    // 熄灭对应方向的按钮；返回实际服务了的呼叫方向，[0]上行、[1]下行
+    public boolean[] elevatorArrived(Elevator elevator, Direction direction) {
+        boolean[] served = new boolean[2];
+        if ((direction == Direction.UP || direction == Direction.IDLE) && serveHallCall(elevator, Direction.UP)) {
+            served[0] = true;
             String upArrivedMsg = floorNumber + " 层上行请求已处理";
-            System.out.println(upArrivedMsg);
-            ElevatorGUI.logMessage(upArrivedMsg);
+            elevatorSystem.log(upArrivedMsg);
         }
         
-        if (direction == Direction.DOWN || direction == Direction.IDLE) {
-            resetDownButton();
+        if ((direction == Direction.DOWN || direction == Direction.IDLE) && serveHallCall(elevator, Direction.DOWN)) {
+            served[1] = true;
             String downArrivedMsg = floorNumber + " 层下行请求已处理";
-            System.out.println(downArrivedMsg);
-            ElevatorGUI.logMessage(downArrivedMsg);
+            elevatorSystem.log(downArrivedMsg);
         }
+        return served;
     }
     
-    // 重置上行按钮状态
-    public void resetUpButton() {
-        upButtonPressed = false;
-    }
-    
-    // 重置下行按钮状态
-    public void resetDownButton() {
-        downButtonPressed = false;
+    // 由到达的电梯服务本层某方向的呼叫：呼叫由它负责或尚未派梯时直接清除；
+    // 由其他电梯负责时先从那部电梯的行程表中移除该停靠点再清除，避免它再空跑一趟
+    // 清除用 compare-and-set，状态被并发改变（改派、重新登记）时按新状态重试；返回是否清除了呼叫
+    private boolean serveHallCall(Elevator elevator, Direction direction) {
+        HallCallRegistry hallCalls = elevatorSystem.getHallCalls();
+        while (true) {
+            int state = hallCalls.getState(floorNumber, direction);
+            if (state == HallCallRegistry.NONE) {
+                return false;
+            }
+            if (state != HallCallRegistry.PENDING && state != elevator.getId()) {
+                elevatorSystem.getElevators().get(state - 1).cancelHallCall(floorNumber, direction);
+            }
+            if (hallCalls.release(floorNumber, direction, state)) {
+                return true;
+            }
+        }
     }
     
     // Getter 方法
@@ -72,10 +77,10 @@ public class Floor {
     }
     
     public boolean isUpButtonPressed() {
-        return upButtonPressed;
+        return elevatorSystem.getHallCalls().isRegistered(floorNumber, Direction.UP);
     }
     
     public boolean isDownButtonPressed() {
-        return downButtonPressed;
+        return elevatorSystem.getHallCalls().isRegistered(floorNumber, Direction.DOWN);
     }
 } 
\ No newline at end of file
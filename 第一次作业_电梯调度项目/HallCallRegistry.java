@@ -0,0 +1,57 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 外部呼叫登记表：每个楼层、每个方向一个原子状态，楼层按钮灯由它派生
+// 状态取值：NONE 无呼叫；PENDING 已登记、等待派梯；大于0 为负责该呼叫的电梯编号
+// 所有状态转换都用 compare-and-set 完成，并发的重复按下只有一次能登记成功，派梯也只有一次能认领成功
+public class HallCallRegistry {
+    public static final int NONE = 0;
+    public static final int PENDING = -1;
+    
+    private final AtomicIntegerArray calls; // [楼层*2+方向]
+    
+    public HallCallRegistry(int floors) {
+        this.calls = new AtomicIntegerArray(floors * 2);
+    }
+    
+    // 登记呼叫，返回是否为新呼叫；已登记的呼叫（无论是否已派梯）被合并，返回false
+    public boolean register(int floor, Direction direction) {
+        return calls.compareAndSet(index(floor, direction), NONE, PENDING);
+    }
+    
+    // 把待派梯的呼叫认领给指定电梯，返回是否认领成功
+    public boolean claim(int floor, Direction direction, int elevatorId) {
+        return calls.compareAndSet(index(floor, direction), PENDING, elevatorId);
+    }
+    
+    // 把已派给某部电梯（或处于任意已登记状态）的呼叫退回待派梯状态，用于改派；呼叫已被服务时返回false
+    public boolean reclaim(int floor, Direction direction) {
+        int index = index(floor, direction);
+        while (true) {
+            int state = calls.get(index);
+            if (state == NONE) {
+                return false;
+            }
+            if (state == PENDING || calls.compareAndSet(index, state, PENDING)) {
+                return true;
+            }
+        }
+    }
+    
+    // 呼叫已被服务，清除登记；只在状态仍为 expected（负责的电梯编号或 PENDING）时清除，返回是否清除成功
+    public boolean release(int floor, Direction direction, int expected) {
+        return expected != NONE && calls.compareAndSet(index(floor, direction), expected, NONE);
+    }
+    
+    // 当前状态：NONE、PENDING 或负责该呼叫的电梯编号
+    public int getState(int floor, Direction direction) {
+        return calls.get(index(floor, direction));
+    }
+    
+    public boolean isRegistered(int floor, Direction direction) {
+        return calls.get(index(floor, direction)) != NONE;
+    }
+    
+    private static int index(int floor, Direction direction) {
+        return (floor - 1) * 2 + (direction == Direction.UP ? 0 : 1);
+    }
+}
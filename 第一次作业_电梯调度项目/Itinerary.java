@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// 电梯行程表：按计划顺序保存全部停靠点（内部呼叫和带方向的外部呼叫），
+// 新停靠点插入到使所有停靠点预计到达时间之和增量最小的位置，各项权重由 DispatchPolicy 给出
+// 非线程安全，由所属电梯的锁保护
+public class Itinerary {
+    // 停靠点：同一楼层的内部呼叫和同方向外部呼叫合并为一个停靠点
+    public static class Stop {
+        private final int floor;
+        private final boolean carCall; // 是否有内部呼叫
+        private final Direction hallDirection; // 外部呼叫方向，IDLE 表示没有外部呼叫
+        
+        Stop(int floor, boolean carCall, Direction hallDirection) {
+            this.floor = floor;
+            this.carCall = carCall;
+            this.hallDirection = hallDirection;
+        }
+        
+        public int getFloor() {
+            return floor;
+        }
+        
+        public boolean isCarCall() {
+            return carCall;
+        }
+        
+        public Direction getHallDirection() {
+            return hallDirection;
+        }
+    }
+    
+    private final List<Stop> stops = new ArrayList<>();
+    private KinematicModel kinematics; // 运行时间模型
+    private DispatchPolicy policy; // 代价权重
+    private final long stopTime; // 每次停靠的开关门时间(ms)
+    
+    public Itinerary(KinematicModel kinematics, DispatchPolicy policy, long stopTime) {
+        this.kinematics = kinematics;
+        this.policy = policy;
+        this.stopTime = stopTime;
+    }
+    
+    public void setKinematics(KinematicModel kinematics) {
+        this.kinematics = kinematics;
+    }
+    
+    public void setPolicy(DispatchPolicy policy) {
+        this.policy = policy;
+    }
+    
+    // 插入停靠点的边际代价(ms)，另加按已有停靠点数计的负载惩罚；已有相同呼叫时为0
+    public long insertionCost(int startFloor, int floor, Direction hallDirection) {
+        List<Stop> best = bestPlan(startFloor, floor, hallDirection);
+        if (best == null) {
+            return 0;
+        }
+        return routeCost(startFloor, best, floor, hallDirection) - routeCost(startFloor, stops, floor, hallDirection)
+            + policy.getLoadPenalty() * stops.size();
+    }
+    
+    // 以最小边际代价插入停靠点，hallDirection 为 IDLE 表示内部呼叫；返回是否新增了呼叫
+    public boolean insert(int startFloor, int floor, Direction hallDirection) {
+        List<Stop> best = bestPlan(startFloor, floor, hallDirection);
+        if (best == null) {
+            return false;
+        }
+        stops.clear();
+        stops.addAll(best);
+        return true;
+    }
+    
+    // 下一个停靠点，没有时返回null
+    public Stop peek() {
+        return stops.isEmpty() ? null : stops.get(0);
+    }
+    
+    // 到达楼层后移除行程表开头位于该楼层的停靠点，返回其中外部呼叫的方向（没有则为IDLE）
+    // 一次只移除一个方向的外部呼叫：同层相反方向的外部呼叫留在行程表中，由下一次开关门服务
+    public Direction removeLeadingStopsAt(int floor) {
+        Direction hallDirection = Direction.IDLE;
+        while (!stops.isEmpty() && stops.get(0).floor == floor) {
+            Stop stop = stops.get(0);
+            if (stop.hallDirection != Direction.IDLE) {
+                if (hallDirection != Direction.IDLE) {
+                    break;
+                }
+                hallDirection = stop.hallDirection;
+            }
+            stops.remove(0);
+        }
+        return hallDirection;
+    }
+    
+    // 移除某层某方向的外部呼叫，同一停靠点上的内部呼叫保留
+    public void removeHallCall(int floor, Direction hallDirection) {
+        for (int i = 0; i < stops.size(); i++) {
+            Stop stop = stops.get(i);
+            if (stop.floor == floor && stop.hallDirection == hallDirection) {
+                if (stop.carCall) {
+                    stops.set(i, new Stop(floor, true, Direction.IDLE));
+                } else {
+                    stops.remove(i);
+                }
+                return;
+            }
+        }
+    }
+    
+    // 移除全部外部呼叫（电梯停用时交还调度器重新分配），内部呼叫保留
+    public void removeHallCalls() {
+        List<Stop> kept = new ArrayList<>();
+        for (Stop stop : stops) {
+            if (stop.hallDirection == Direction.IDLE) {
+                kept.add(stop);
+            } else if (stop.carCall) {
+                kept.add(new Stop(stop.floor, true, Direction.IDLE));
+            }
+        }
+        stops.clear();
+        stops.addAll(kept);
+    }
+    
+    // 行程表中的楼层（按计划顺序，可能重复）
+    public List<Integer> getFloors() {
+        List<Integer> floors = new ArrayList<>();
+        for (Stop stop : stops) {
+            floors.add(stop.floor);
+        }
+        return floors;
+    }
+    
+    public List<Stop> getStops() {
+        return new ArrayList<>(stops);
+    }
+    
+    public boolean isEmpty() {
+        return stops.isEmpty();
+    }
+    
+    // 枚举所有插入位置（包括与同楼层停靠点合并），返回代价最小的新行程；呼叫已存在时返回null
+    private List<Stop> bestPlan(int startFloor, int floor, Direction hallDirection) {
+        boolean carCall = hallDirection == Direction.IDLE;
+        for (Stop stop : stops) {
+            if (stop.floor == floor && (carCall ? stop.carCall : stop.hallDirection == hallDirection)) {
+                return null;
+            }
+        }
+        
+        List<Stop> best = null;
+        long bestCost = Long.MAX_VALUE;
+        
+        // 与同楼层的已有停靠点合并（不能合并两个相反方向的外部呼叫）
+        for (int i = 0; i < stops.size(); i++) {
+            Stop stop = stops.get(i);
+            if (stop.floor != floor || (!carCall && stop.hallDirection != Direction.IDLE)) {
+                continue;
+            }
+            List<Stop> candidate = new ArrayList<>(stops);
+            candidate.set(i, new Stop(floor, stop.carCall || carCall, carCall ? stop.hallDirection : hallDirection));
+            long cost = routeCost(startFloor, candidate, floor, hallDirection);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = candidate;
+            }
+        }
+        
+        // 作为独立停靠点插入到每个可能的位置
+        for (int i = 0; i <= stops.size(); i++) {
+            List<Stop> candidate = new ArrayList<>(stops);
+            candidate.add(i, new Stop(floor, carCall, hallDirection));
+            long cost = routeCost(startFloor, candidate, floor, hallDirection);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+    
+    // 行程代价：从起始楼层依次经过各停靠点，所有停靠点预计到达时间之和，
+    // 新呼叫（newFloor 层、newDirection 方向）所在停靠点的到达时间再乘以接客权重计入，
+    // 外部呼叫之后的下一段行程与呼叫方向相反时加上惩罚
+    private long routeCost(int startFloor, List<Stop> route, int newFloor, Direction newDirection) {
+        boolean newCarCall = newDirection == Direction.IDLE;
+        long time = 0;
+        long total = 0;
+        int floor = startFloor;
+        for (int i = 0; i < route.size(); i++) {
+            Stop stop = route.get(i);
+            time += kinematics.travelTimeMillis(floor, stop.floor);
+            total += time;
+            if (stop.floor == newFloor && (newCarCall ? stop.carCall : stop.hallDirection == newDirection)) {
+                total += Math.round(time * policy.getPickupWeight());
+            }
+            time += stopTime;
+            floor = stop.floor;
+            
+            if (stop.hallDirection != Direction.IDLE && i + 1 < route.size()) {
+                int nextFloor = route.get(i + 1).floor;
+                if (nextFloor != floor && (nextFloor > floor) != (stop.hallDirection == Direction.UP)) {
+                    total += policy.getWrongWayPenalty();
+                }
+            }
+        }
+        return total;
+    }
+}
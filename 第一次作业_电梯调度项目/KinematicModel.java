@@ -0,0 +1,192 @@
+import java.util.Arrays;
+
+// 电梯运动学模型：最高速度、加速度和加加速度(jerk)受限的S形速度曲线，楼层间距可逐层配置
+// 同一模型同时用于电梯运行时的逐层耗时和调度器的到达时间估计；构造后不可变，可被多栋楼共享
+public class KinematicModel {
+    public static final long DEFAULT_FLOOR_MOVE_TIME = 500; // 默认每层移动时间(ms)，GUI演示使用
+    
+    private final double[] elevations; // 各楼层相对1层的高度(m)，下标0为1层
+    private final double maxSpeed; // 最高速度(m/s)
+    private final double acceleration; // 最大加速度(m/s^2)
+    private final double jerk; // 最大加加速度(m/s^3)
+    private final long floorMoveTime; // 大于0时为匀速模型：每层固定耗时(ms)
+    private final long[][] travelTimes; // 预计算的任意两层之间的运行时间(ms)
+    
+    // 匀速模型：每层固定耗时，与原有的 FLOOR_MOVE_TIME 行为一致
+    public static KinematicModel constantFloorTime(int floors, long floorMoveTime) {
+        return new KinematicModel(new double[Math.max(0, floors - 1)], 0, 0, 0, floorMoveTime);
+    }
+    
+    // 等层高的运动学模型
+    public static KinematicModel uniform(int floors, double floorHeight, double maxSpeed,
+                                         double acceleration, double jerk) {
+        double[] floorHeights = new double[Math.max(0, floors - 1)];
+        Arrays.fill(floorHeights, floorHeight);
+        return new KinematicModel(floorHeights, maxSpeed, acceleration, jerk);
+    }
+    
+    // floorHeights[i] 为第 i+1 层到第 i+2 层的间距(m)，可用于大堂、设备层等非标准层高
+    public KinematicModel(double[] floorHeights, double maxSpeed, double acceleration, double jerk) {
+        this(floorHeights, maxSpeed, acceleration, jerk, 0);
+        if (maxSpeed <= 0 || acceleration <= 0 || jerk <= 0) {
+            throw new IllegalArgumentException("速度、加速度和加加速度必须大于0");
+        }
+    }
+    
+    private KinematicModel(double[] floorHeights, double maxSpeed, double acceleration, double jerk,
+                           long floorMoveTime) {
+        this.maxSpeed = maxSpeed;
+        this.acceleration = acceleration;
+        this.jerk = jerk;
+        this.floorMoveTime = floorMoveTime;
+        this.elevations = new double[floorHeights.length + 1];
+        for (int i = 0; i < floorHeights.length; i++) {
+            elevations[i + 1] = elevations[i] + floorHeights[i];
+        }
+        
+        int floors = elevations.length;
+        travelTimes = new long[floors][floors];
+        for (int from = 0; from < floors; from++) {
+            for (int to = from + 1; to < floors; to++) {
+                long time = floorMoveTime > 0
+                    ? (to - from) * floorMoveTime
+                    : toMillis(tripTime(elevations[to] - elevations[from]));
+                travelTimes[from][to] = time;
+                travelTimes[to][from] = time;
+            }
+        }
+    }
+    
+    // 从静止出发到静止停靠所需时间(ms)
+    public long travelTimeMillis(int fromFloor, int toFloor) {
+        return travelTimes[fromFloor - 1][toFloor - 1];
+    }
+    
+    // 一次运行中依次到达每个经过楼层的累计时间(ms)，最后一项为到达目标楼层的时间
+    public long[] floorPassTimes(int fromFloor, int toFloor) {
+        int floors = Math.abs(toFloor - fromFloor);
+        int step = toFloor > fromFloor ? 1 : -1;
+        long[] passTimes = new long[floors];
+        if (floorMoveTime > 0) {
+            for (int i = 0; i < floors; i++) {
+                passTimes[i] = (i + 1) * floorMoveTime;
+            }
+            return passTimes;
+        }
+        
+        double distance = Math.abs(elevations[toFloor - 1] - elevations[fromFloor - 1]);
+        double[][] segments = profile(distance);
+        for (int i = 0; i < floors; i++) {
+            int floor = fromFloor + (i + 1) * step;
+            double x = Math.abs(elevations[floor - 1] - elevations[fromFloor - 1]);
+            passTimes[i] = toMillis(timeAtDistance(segments, x));
+        }
+        passTimes[floors - 1] = travelTimeMillis(fromFloor, toFloor);
+        return passTimes;
+    }
+    
+    public int getFloors() {
+        return elevations.length;
+    }
+    
+    // 静止到静止运行 distance 米所需时间(s)
+    private double tripTime(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        double peak = peakSpeed(distance);
+        return 2 * accelerationTime(peak) + cruiseTime(distance, peak);
+    }
+    
+    // 运行该距离能达到的峰值速度：距离足够时为最高速度，否则二分求解
+    private double peakSpeed(double distance) {
+        if (maxSpeed * accelerationTime(maxSpeed) <= distance) {
+            return maxSpeed;
+        }
+        double low = 0;
+        double high = maxSpeed;
+        for (int i = 0; i < 60; i++) {
+            double mid = (low + high) / 2;
+            // 对称的加速段和减速段合计行驶 v * T_acc
+            if (mid * accelerationTime(mid) < distance) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+    
+    // 从静止加速到速度 v 所需时间(s)：加速度能达到上限时为梯形加速度曲线，否则为三角形
+    private double accelerationTime(double v) {
+        if (v >= acceleration * acceleration / jerk) {
+            return v / acceleration + acceleration / jerk;
+        }
+        return 2 * Math.sqrt(v / jerk);
+    }
+    
+    private double cruiseTime(double distance, double peak) {
+        return Math.max(0, distance - peak * accelerationTime(peak)) / peak;
+    }
+    
+    // 速度曲线的各段 {持续时间, 加加速度}：加速三段、匀速一段、减速三段
+    private double[][] profile(double distance) {
+        double peak = peakSpeed(distance);
+        double rampTime;
+        double constantTime;
+        if (peak >= acceleration * acceleration / jerk) {
+            rampTime = acceleration / jerk;
+            constantTime = peak / acceleration - acceleration / jerk;
+        } else {
+            rampTime = Math.sqrt(peak / jerk);
+            constantTime = 0;
+        }
+        return new double[][]{
+            {rampTime, jerk}, {constantTime, 0}, {rampTime, -jerk},
+            {cruiseTime(distance, peak), 0},
+            {rampTime, -jerk}, {constantTime, 0}, {rampTime, jerk}
+        };
+    }
+    
+    // 速度曲线在 t 时刻已行驶的距离(m)
+    private static double distanceAt(double[][] segments, double t) {
+        double s = 0;
+        double v = 0;
+        double a = 0;
+        for (double[] segment : segments) {
+            double dt = Math.min(segment[0], t);
+            double j = segment[1];
+            s += v * dt + a * dt * dt / 2 + j * dt * dt * dt / 6;
+            v += a * dt + j * dt * dt / 2;
+            a += j * dt;
+            t -= dt;
+            if (t <= 0) {
+                break;
+            }
+        }
+        return s;
+    }
+    
+    // 行驶到距离 x 的时刻(s)，距离随时间单调增加，二分求解
+    private static double timeAtDistance(double[][] segments, double x) {
+        double total = 0;
+        for (double[] segment : segments) {
+            total += segment[0];
+        }
+        double low = 0;
+        double high = total;
+        for (int i = 0; i < 50; i++) {
+            double mid = (low + high) / 2;
+            if (distanceAt(segments, mid) < x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+    
+    private static long toMillis(double seconds) {
+        return Math.round(seconds * 1000);
+    }
+}
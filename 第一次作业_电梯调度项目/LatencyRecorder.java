@@ -0,0 +1,58 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// 线程安全的延迟统计：按2的幂微秒分桶，记录开销低，可被成千上万个电梯线程同时写入
+public class LatencyRecorder {
+    private static final int BUCKETS = 40; // 第 i 桶统计 [2^(i-1), 2^i) 微秒
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    // 记录一次延迟(纳秒)，负值按0处理
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        long micros = value / 1000;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    // 平均延迟(毫秒)
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / 1e6 / n;
+    }
+    
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+    
+    // 百分位延迟(毫秒)，返回所在桶的上界
+    public double getPercentileMillis(double percentile) {
+        long n = count.sum();
+        long target = (long) Math.ceil(n * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target && seen > 0) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return 0.0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("样本 %d, 平均 %.2fms, P50 <= %.2fms, P99 <= %.2fms, 最大 %.2fms",
+            getCount(), getMeanMillis(), getPercentileMillis(0.5), getPercentileMillis(0.99), getMaxMillis());
+    }
+}
@@ -6,8 +6,10 @@ public class Main {
     public static void main(String[] args) {
         System.out.println("电梯调度系统启动中...");
         
-        // 创建并启动电梯系统
-        ElevatorSystem elevatorSystem = new ElevatorSystem();
+        // 创建并启动电梯系统（-Delevator.threads=virtual 时使用虚拟线程）
+        ExecutionMode mode = "virtual".equalsIgnoreCase(System.getProperty("elevator.threads"))
+            ? ExecutionMode.VIRTUAL : ExecutionMode.PLATFORM;
+        ElevatorSystem elevatorSystem = new ElevatorSystem(mode);
         elevatorSystem.start();
         
         // 启动GUI界面
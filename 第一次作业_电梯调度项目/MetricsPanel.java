@@ -0,0 +1,105 @@
+import javax.swing.*;
+import java.awt.*;
+
+// 运行指标面板：显示滚动吞吐量、当前/P95等待时间、各电梯利用率和各楼层排队深度
+// 只接收采样线程生成的 MetricsRegistry.Snapshot，update() 须在EDT中调用
+public class MetricsPanel extends JPanel {
+    private final JLabel throughputLabel;
+    private final JLabel waitLabel;
+    private final JProgressBar[] utilisationBars;
+    private final QueueDepthChart queueDepthChart;
+    
+    public MetricsPanel(int elevatorCount, int floorCount, Font font) {
+        setLayout(new BorderLayout(0, 5));
+        setBorder(BorderFactory.createTitledBorder("运行指标"));
+        
+        JPanel summaryPanel = new JPanel(new GridLayout(2, 1));
+        throughputLabel = new JLabel("吞吐量: 0 人/5分钟");
+        throughputLabel.setFont(font);
+        waitLabel = new JLabel("等待时间: 当前 0.0秒  P95 0.0秒");
+        waitLabel.setFont(font);
+        summaryPanel.add(throughputLabel);
+        summaryPanel.add(waitLabel);
+        add(summaryPanel, BorderLayout.NORTH);
+        
+        // 各电梯利用率（最近一分钟内忙碌时间的比例）
+        JPanel utilisationPanel = new JPanel(new GridLayout(elevatorCount, 1, 0, 2));
+        utilisationPanel.setBorder(BorderFactory.createTitledBorder("电梯利用率"));
+        utilisationBars = new JProgressBar[elevatorCount];
+        for (int i = 0; i < elevatorCount; i++) {
+            JProgressBar bar = new JProgressBar(0, 100);
+            bar.setStringPainted(true);
+            bar.setFont(font);
+            bar.setString("电梯 " + (i + 1) + ": 0%");
+            utilisationBars[i] = bar;
+            utilisationPanel.add(bar);
+        }
+        add(utilisationPanel, BorderLayout.CENTER);
+        
+        queueDepthChart = new QueueDepthChart(floorCount, font);
+        add(queueDepthChart, BorderLayout.SOUTH);
+    }
+    
+    public void update(MetricsRegistry.Snapshot snapshot) {
+        throughputLabel.setText("吞吐量: " + snapshot.getThroughput() + " 人/5分钟");
+        waitLabel.setText(String.format("等待时间: 当前 %.1f秒  P95 %.1f秒",
+            snapshot.getCurrentWait() / 1000.0, snapshot.getP95Wait() / 1000.0));
+        
+        double[] utilisation = snapshot.getUtilisation();
+        for (int i = 0; i < utilisationBars.length && i < utilisation.length; i++) {
+            int percent = (int) Math.round(utilisation[i] * 100);
+            utilisationBars[i].setValue(percent);
+            utilisationBars[i].setString("电梯 " + (i + 1) + ": " + percent + "%");
+        }
+        
+        queueDepthChart.setDepths(snapshot.getQueueDepths());
+    }
+    
+    // 各楼层排队深度柱状图，顶层在上
+    private static class QueueDepthChart extends JComponent {
+        private static final int ROW_HEIGHT = 8;
+        private static final int LABEL_WIDTH = 24;
+        
+        private int[] depths;
+        
+        QueueDepthChart(int floorCount, Font font) {
+            this.depths = new int[floorCount];
+            setFont(font);
+            setBorder(BorderFactory.createTitledBorder("排队深度"));
+            setPreferredSize(new Dimension(260, floorCount * ROW_HEIGHT + 30));
+        }
+        
+        void setDepths(int[] depths) {
+            this.depths = depths;
+            repaint();
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Insets insets = getInsets();
+            int width = getWidth() - insets.left - insets.right - LABEL_WIDTH;
+            int rowHeight = Math.max(1, (getHeight() - insets.top - insets.bottom) / depths.length);
+            
+            int maxDepth = 1;
+            for (int depth : depths) {
+                maxDepth = Math.max(maxDepth, depth);
+            }
+            
+            g.setFont(getFont().deriveFont(9f));
+            for (int i = 0; i < depths.length; i++) {
+                int floor = depths.length - i;
+                int y = insets.top + i * rowHeight;
+                if (floor % 5 == 0 || floor == 1) {
+                    g.setColor(Color.DARK_GRAY);
+                    g.drawString(String.valueOf(floor), insets.left, y + rowHeight);
+                }
+                int depth = depths[floor - 1];
+                if (depth > 0) {
+                    g.setColor(depth > 3 ? Color.RED : Color.ORANGE);
+                    g.fillRect(insets.left + LABEL_WIDTH, y + 1, width * depth / maxDepth, Math.max(1, rowHeight - 2));
+                }
+            }
+        }
+    }
+}
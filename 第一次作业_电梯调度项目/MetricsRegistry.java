@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 运行指标登记表：楼层按钮和电梯线程只做原子计数，
+// 百分位、滚动吞吐量和利用率由采样线程在 sample() 中计算，不占用事件分发线程(EDT)
+public class MetricsRegistry {
+    private static final long BUCKET_WIDTH = 5000; // 吞吐量分桶宽度(ms)
+    private static final int THROUGHPUT_BUCKETS = 60; // 60 x 5s = 5分钟滚动窗口
+    private static final int WAIT_SAMPLES = 1024; // 保留最近的等待时间样本数，用于计算P95
+    private static final int UTILISATION_SAMPLES = 120; // 每部电梯保留的忙闲采样数
+    private static final long NO_CALL = -1; // 没有未服务呼叫
+    
+    private final int floors;
+    private final AtomicIntegerArray waitingPresses; // [楼层*2+方向] 自上次服务以来的按钮按下次数
+    private final AtomicLongArray firstCallTimes; // [楼层*2+方向] 最早未服务呼叫的时间
+    private final AtomicLongArray throughputCounts; // 每个时间桶内上梯的乘客数
+    private final AtomicLongArray throughputEpochs; // 每个槽位当前对应的时间桶编号
+    private final AtomicLongArray waitSamples; // 等待时间环形缓冲区(ms)
+    private final AtomicLong waitSampleCount = new AtomicLong();
+    
+    // 以下字段只在采样线程中读写
+    private final boolean[][] busySamples; // [电梯][采样序号] 是否忙碌
+    private int utilisationCursor;
+    private int utilisationFilled;
+    
+    // 某一时刻的指标快照，不可变，可安全地交给EDT显示
+    public static class Snapshot {
+        private final long throughput;
+        private final long currentWait;
+        private final long p95Wait;
+        private final double[] utilisation;
+        private final int[] queueDepths;
+        
+        Snapshot(long throughput, long currentWait, long p95Wait, double[] utilisation, int[] queueDepths) {
+            this.throughput = throughput;
+            this.currentWait = currentWait;
+            this.p95Wait = p95Wait;
+            this.utilisation = utilisation;
+            this.queueDepths = queueDepths;
+        }
+        
+        // 最近5分钟上梯的乘客数（以按下呼梯按钮的次数计）
+        public long getThroughput() {
+            return throughput;
+        }
+        
+        // 当前最长的未服务呼叫已等待的时间(ms)
+        public long getCurrentWait() {
+            return currentWait;
+        }
+        
+        // 最近等待样本的P95(ms)
+        public long getP95Wait() {
+            return p95Wait;
+        }
+        
+        // 各电梯利用率（0-1），下标为电梯编号-1
+        public double[] getUtilisation() {
+            return utilisation.clone();
+        }
+        
+        // 各楼层排队深度，下标为楼层-1
+        public int[] getQueueDepths() {
+            return queueDepths.clone();
+        }
+    }
+    
+    public MetricsRegistry(int floors, int elevators) {
+        this.floors = floors;
+        this.waitingPresses = new AtomicIntegerArray(floors * 2);
+        this.firstCallTimes = new AtomicLongArray(floors * 2);
+        for (int i = 0; i < floors * 2; i++) {
+            firstCallTimes.set(i, NO_CALL);
+        }
+        this.throughputCounts = new AtomicLongArray(THROUGHPUT_BUCKETS);
+        this.throughputEpochs = new AtomicLongArray(THROUGHPUT_BUCKETS);
+        this.waitSamples = new AtomicLongArray(WAIT_SAMPLES);
+        this.busySamples = new boolean[elevators][UTILISATION_SAMPLES];
+    }
+    
+    // 记录一次呼梯按钮按下（包括已点亮按钮的重复按下，每次代表一位候梯乘客）
+    public void recordHallCall(int floor, Direction direction, long now) {
+        int index = index(floor, direction);
+        waitingPresses.incrementAndGet(index);
+        firstCallTimes.compareAndSet(index, NO_CALL, now);
+    }
+    
+    // 记录某层某方向的呼叫被服务：记录最早呼叫的等待时间，并把候梯人数计入吞吐量
+    public void recordHallCallServed(int floor, Direction direction, long now) {
+        int index = index(floor, direction);
+        int passengers = waitingPresses.getAndSet(index, 0);
+        long callTime = firstCallTimes.getAndSet(index, NO_CALL);
+        if (callTime != NO_CALL) {
+            long slot = waitSampleCount.getAndIncrement() % WAIT_SAMPLES;
+            waitSamples.set((int) slot, now - callTime);
+        }
+        if (passengers > 0) {
+            long bucket = now / BUCKET_WIDTH;
+            int slot = (int) (bucket % THROUGHPUT_BUCKETS);
+            long epoch = throughputEpochs.get(slot);
+            // 槽位属于旧的时间桶时先清零（并发清零可能丢失极少量计数，对显示无影响）
+            if (epoch != bucket && throughputEpochs.compareAndSet(slot, epoch, bucket)) {
+                throughputCounts.set(slot, 0);
+            }
+            throughputCounts.addAndGet(slot, passengers);
+        }
+    }
+    
+    // 采样并计算当前指标，应由单个后台线程定期调用
+    public synchronized Snapshot sample(List<Elevator> elevators, long now) {
+        long currentBucket = now / BUCKET_WIDTH;
+        long throughput = 0;
+        for (int i = 0; i < THROUGHPUT_BUCKETS; i++) {
+            if (throughputEpochs.get(i) > currentBucket - THROUGHPUT_BUCKETS) {
+                throughput += throughputCounts.get(i);
+            }
+        }
+        
+        long currentWait = 0;
+        int[] queueDepths = new int[floors];
+        for (int i = 0; i < floors * 2; i++) {
+            long callTime = firstCallTimes.get(i);
+            if (callTime != NO_CALL) {
+                currentWait = Math.max(currentWait, now - callTime);
+            }
+            queueDepths[i / 2] += waitingPresses.get(i);
+        }
+        
+        int samples = (int) Math.min(waitSampleCount.get(), WAIT_SAMPLES);
+        long[] waits = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            waits[i] = waitSamples.get(i);
+        }
+        Arrays.sort(waits);
+        long p95Wait = samples == 0 ? 0 : waits[Math.min(samples - 1, (int) Math.ceil(samples * 0.95) - 1)];
+        
+        // 电梯移动、正在开关门或行程表非空时视为忙碌；开着门停在某层等待（界面模式下门不会自动关闭）不算忙碌
+        double[] utilisation = new double[busySamples.length];
+        for (int i = 0; i < busySamples.length && i < elevators.size(); i++) {
+            Elevator elevator = elevators.get(i);
+            ElevatorState state = elevator.getState();
+            busySamples[i][utilisationCursor] = state == ElevatorState.MOVING || state == ElevatorState.DOOR_OPENING
+                || state == ElevatorState.DOOR_CLOSING || elevator.hasPendingStops();
+        }
+        utilisationCursor = (utilisationCursor + 1) % UTILISATION_SAMPLES;
+        utilisationFilled = Math.min(utilisationFilled + 1, UTILISATION_SAMPLES);
+        for (int i = 0; i < busySamples.length; i++) {
+            int busy = 0;
+            for (int j = 0; j < utilisationFilled; j++) {
+                if (busySamples[i][j]) {
+                    busy++;
+                }
+            }
+            utilisation[i] = (double) busy / utilisationFilled;
+        }
+        
+        return new Snapshot(throughput, currentWait, p95Wait, utilisation, queueDepths);
+    }
+    
+    private static int index(int floor, Direction direction) {
+        return (floor - 1) * 2 + (direction == Direction.UP ? 0 : 1);
+    }
+}
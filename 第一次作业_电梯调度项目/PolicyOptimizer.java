@@ -0,0 +1,152 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// 调度策略离线调优：(μ+λ) 进化策略搜索 DispatchPolicy 的权重
+// 每个候选策略在多种客流强度、多个种子的无头仿真上评估，所有仿真提交到工作窃取线程池并行运行；
+// 同一代的候选使用相同的训练种子（公共随机数），最后在独立的验证种子上与默认策略比较并写出策略文件
+public class PolicyOptimizer {
+    private static final double[] ARRIVAL_RATES = {4.0, 8.0, 14.0}; // 训练客流：平峰、中等、高峰（每分钟乘客数）
+    private static final int TRAINING_SEEDS = 4; // 每种客流的训练种子数
+    private static final long TRAINING_SEED_BASE = 1000L;
+    private static final long VALIDATION_SEED_BASE = 9000L;
+    private static final long SIMULATED_TIME = 30 * 60000L; // 每次仿真的模拟时长(ms)
+    private static final int PARENTS = 4; // μ：每代保留的最优策略数
+    private static final int OFFSPRING = 12; // λ：每代变异产生的新策略数
+    
+    private final int floors;
+    private final int elevators;
+    private final KinematicModel kinematics;
+    private final ForkJoinPool pool;
+    private final Random random;
+    
+    // 候选策略及其适应度（平均候梯时间 + 平均乘梯时间，秒，越小越好）
+    private static class Candidate {
+        final DispatchPolicy policy;
+        double fitness;
+        
+        Candidate(DispatchPolicy policy) {
+            this.policy = policy;
+        }
+    }
+    
+    public PolicyOptimizer(int floors, int elevators, KinematicModel kinematics, int parallelism, long seed) {
+        this.floors = floors;
+        this.elevators = elevators;
+        this.kinematics = kinematics;
+        this.pool = new ForkJoinPool(parallelism);
+        this.random = new Random(seed);
+    }
+    
+    // 运行 generations 代进化，返回最优策略
+    public DispatchPolicy optimize(int generations) {
+        List<Candidate> population = new ArrayList<>();
+        population.add(new Candidate(DispatchPolicy.defaults()));
+        while (population.size() < PARENTS + OFFSPRING) {
+            population.add(new Candidate(mutate(DispatchPolicy.defaults())));
+        }
+        evaluate(population, TRAINING_SEED_BASE);
+        
+        for (int generation = 1; generation <= generations; generation++) {
+            List<Candidate> parents = new ArrayList<>(population.subList(0, PARENTS));
+            List<Candidate> offspring = new ArrayList<>();
+            for (int i = 0; i < OFFSPRING; i++) {
+                offspring.add(new Candidate(mutate(parents.get(random.nextInt(PARENTS)).policy)));
+            }
+            evaluate(offspring, TRAINING_SEED_BASE);
+            
+            population = new ArrayList<>(parents);
+            population.addAll(offspring);
+            population.sort(Comparator.comparingDouble(c -> c.fitness));
+            System.out.println(String.format("第 %d 代: 最优 %.2fs (%s)", generation,
+                population.get(0).fitness, population.get(0).policy));
+        }
+        return population.get(0).policy;
+    }
+    
+    // 在给定种子组上评估策略的适应度
+    public double evaluate(DispatchPolicy policy, long seedBase) {
+        Candidate candidate = new Candidate(policy);
+        evaluate(Collections.singletonList(candidate), seedBase);
+        return candidate.fitness;
+    }
+    
+    public void shutdown() {
+        pool.shutdown();
+    }
+    
+    // 并行评估一组候选：每个候选 x 每种客流 x 每个种子一次仿真，评估完按适应度升序排序
+    private void evaluate(List<Candidate> candidates, long seedBase) {
+        List<List<ForkJoinTask<SimulationMetrics>>> tasks = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            List<ForkJoinTask<SimulationMetrics>> runs = new ArrayList<>();
+            for (double rate : ARRIVAL_RATES) {
+                for (int s = 0; s < TRAINING_SEEDS; s++) {
+                    final long seed = seedBase + s;
+                    final DispatchPolicy policy = candidate.policy;
+                    runs.add(pool.submit(() -> {
+                        BuildingSimulation simulation = new BuildingSimulation(floors, elevators, rate, seed, kinematics);
+                        simulation.setDispatchPolicy(policy);
+                        return simulation.run(SIMULATED_TIME);
+                    }));
+                }
+            }
+            tasks.add(runs);
+        }
+        
+        for (int i = 0; i < candidates.size(); i++) {
+            SimulationMetrics total = new SimulationMetrics();
+            for (ForkJoinTask<SimulationMetrics> run : tasks.get(i)) {
+                total.merge(run.join());
+            }
+            candidates.get(i).fitness = total.getAverageWaitSeconds() + total.getAverageRideSeconds();
+        }
+        if (candidates.size() > 1) {
+            candidates.sort(Comparator.comparingDouble(c -> c.fitness));
+        }
+    }
+    
+    // 高斯变异，权重截断到非负
+    private DispatchPolicy mutate(DispatchPolicy policy) {
+        long wrongWayPenalty = Math.max(0, Math.round(policy.getWrongWayPenalty() + random.nextGaussian() * 3000));
+        double pickupWeight = Math.max(0, policy.getPickupWeight() + random.nextGaussian() * 0.25);
+        long loadPenalty = Math.max(0, Math.round(policy.getLoadPenalty() + random.nextGaussian() * 1500));
+        return new DispatchPolicy(wrongWayPenalty, Math.round(pickupWeight * 100) / 100.0, loadPenalty);
+    }
+    
+    // 用法: java PolicyOptimizer [代数] [输出文件]
+    public static void main(String[] args) throws IOException {
+        int generations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        File output = new File(args.length > 1 ? args[1] : DispatchPolicy.DEFAULT_FILE);
+        
+        int floors = ElevatorSystem.getTotalFloors();
+        KinematicModel kinematics = KinematicModel.uniform(floors, 3.5, 2.5, 1.0, 1.5);
+        int cores = Runtime.getRuntime().availableProcessors();
+        PolicyOptimizer optimizer = new PolicyOptimizer(floors, 5, kinematics, cores, 42L);
+        System.out.println("调度策略调优: " + generations + " 代，每代 " + OFFSPRING + " 个新策略，并行度 " + cores);
+        
+        try {
+            long start = System.nanoTime();
+            DispatchPolicy best = optimizer.optimize(generations);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            
+            // 在训练未见过的种子上验证
+            double baseline = optimizer.evaluate(DispatchPolicy.defaults(), VALIDATION_SEED_BASE);
+            double tuned = optimizer.evaluate(best, VALIDATION_SEED_BASE);
+            System.out.println(String.format("调优耗时 %.1fs", seconds));
+            System.out.println(String.format("验证集平均行程时间: 默认策略 %.2fs, 调优策略 %.2fs (%+.1f%%)",
+                baseline, tuned, (tuned - baseline) / baseline * 100));
+            
+            best.save(output, "PolicyOptimizer: " + best);
+            System.out.println("策略已写入 " + output.getAbsolutePath());
+        } finally {
+            optimizer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// 调度延迟对比：分别用平台线程池和虚拟线程实时运行大量电梯，
+// 统计 Thread.sleep 的唤醒延迟（实际醒来时间 - 预期醒来时间）和峰值线程数
+public class SchedulingLatencyBenchmark {
+    private static final int REQUEST_INTERVAL = 100; // 发送随机请求的间隔(ms)
+    private static final int DRIVER_THREADS = 4; // 按下按钮的固定驱动线程数，两种模式相同
+    
+    // 用法: java SchedulingLatencyBenchmark [电梯数] [运行秒数]
+    public static void main(String[] args) throws InterruptedException {
+        int cars = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        
+        System.out.println("调度延迟对比: " + cars + " 部电梯，每种模式实时运行 " + seconds + " 秒");
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            if (mode == ExecutionMode.VIRTUAL && !ElevatorSystem.isVirtualThreadSupported()) {
+                System.out.println(mode + ": 当前JDK不支持虚拟线程，跳过");
+                continue;
+            }
+            run(mode, cars, seconds);
+        }
+    }
+    
+    private static void run(ExecutionMode mode, int cars, int seconds) throws InterruptedException {
+        // 驱动线程在统计峰值之前全部启动，两种模式下的峰值线程数都只比电梯系统自身多出这几个线程
+        ExecutorService drivers = Executors.newFixedThreadPool(DRIVER_THREADS);
+        ((ThreadPoolExecutor) drivers).prestartAllCoreThreads();
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        
+        int floors = ElevatorSystem.getTotalFloors();
+        ElevatorSystem elevatorSystem = new ElevatorSystem(floors, cars, mode);
+        elevatorSystem.setLoggingEnabled(false);
+        elevatorSystem.start();
+        
+        // 定期给随机电梯按下内部按钮；交给驱动线程异步按下，避免本线程被正在运行的电梯锁阻塞而打乱发送节奏，
+        // 也不经过电梯系统的门控任务（平台线程模式下每个门控任务新建一个线程，会抬高峰值线程数）
+        Random random = new Random(42);
+        int requestsPerRound = Math.max(1, cars / 200);
+        long end = System.currentTimeMillis() + seconds * 1000L;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < requestsPerRound; i++) {
+                Elevator elevator = elevatorSystem.getElevators().get(random.nextInt(cars));
+                int floor = 1 + random.nextInt(floors);
+                drivers.execute(() -> elevator.pressFloorButton(floor));
+            }
+            Thread.sleep(REQUEST_INTERVAL);
+        }
+        
+        int peakThreads = threadBean.getPeakThreadCount();
+        elevatorSystem.shutdown();
+        drivers.shutdownNow();
+        System.out.println(String.format("%-8s 峰值平台线程 %5d, 唤醒延迟: %s",
+            mode, peakThreads, elevatorSystem.getWakeUpLatency()));
+    }
+}
@@ -0,0 +1,340 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+// 电梯井道画布：用一个自绘组件画出所有井道、轿厢、外部呼叫灯和轿厢内选层灯，
+// 代替每部电梯一个可视化面板加每层一个 JButton 的做法，100层 x 30部电梯也只有一个组件
+// refresh() 对比上次绘制的状态，只对发生变化的区域调用 repaint(Rectangle)，paintComponent 只绘制裁剪区内的行和列
+// 交互：左键点击外部呼叫灯呼梯，点击选层灯选择楼层，右键点击井道打开开门/关门/报警菜单
+public class ShaftCanvas extends JComponent {
+    private static final int ROW_HEIGHT = 22; // 每层高度(px)
+    private static final int HEADER_HEIGHT = 36; // 顶部电梯编号和状态栏高度
+    private static final int LABEL_WIDTH = 28; // 楼层号列宽
+    private static final int HALL_WIDTH = 44; // 外部呼叫灯列宽（上行、下行各一半）
+    private static final int SHAFT_WIDTH = 46; // 井道宽度
+    private static final int LAMP_WIDTH = 26; // 选层灯列宽
+    private static final int COLUMN_GAP = 10; // 电梯之间的间距
+    private static final int COLUMN_WIDTH = SHAFT_WIDTH + LAMP_WIDTH + COLUMN_GAP;
+    private static final Color LAMP_OFF = new Color(225, 225, 225);
+    
+    private final ElevatorSystem elevatorSystem;
+    private final int floors;
+    private final int cars;
+    private final Font font;
+    private final Font boldFont;
+    
+    // 上次绘制时的状态，只在EDT中读写
+    private final int[] carFloors;
+    private final ElevatorState[] carStates;
+    private final Direction[] carDirections;
+    private final boolean[] carAlarmed;
+    private final boolean[][] carCallLamps; // [电梯][楼层-1]
+    private final boolean[][] hallLamps; // [楼层-1][0-上行/1-下行]
+    
+    public ShaftCanvas(ElevatorSystem elevatorSystem, Font font, Font boldFont) {
+        this.elevatorSystem = elevatorSystem;
+        this.floors = elevatorSystem.getFloorCount();
+        this.cars = elevatorSystem.getElevators().size();
+        this.font = font;
+        this.boldFont = boldFont;
+        this.carFloors = new int[cars];
+        this.carStates = new ElevatorState[cars];
+        this.carDirections = new Direction[cars];
+        this.carAlarmed = new boolean[cars];
+        this.carCallLamps = new boolean[cars][floors];
+        this.hallLamps = new boolean[floors][2];
+        for (int i = 0; i < cars; i++) {
+            carFloors[i] = 1;
+            carStates[i] = ElevatorState.STOPPED;
+            carDirections[i] = Direction.IDLE;
+        }
+        
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(LABEL_WIDTH + HALL_WIDTH + COLUMN_GAP + cars * COLUMN_WIDTH,
+            HEADER_HEIGHT + floors * ROW_HEIGHT + 1));
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                handleClick(e);
+            }
+        });
+    }
+    
+    // 从电梯系统读取最新状态，只重绘变化的区域；须在EDT中调用
+    public void refresh() {
+        List<Elevator> elevators = elevatorSystem.getElevators();
+        for (int i = 0; i < cars; i++) {
+            Elevator elevator = elevators.get(i);
+            int floor = elevator.getCurrentFloor();
+            ElevatorState state = elevator.getState();
+            Direction direction = elevator.getDirection();
+            boolean alarmed = elevator.isAlarmed();
+            if (floor != carFloors[i] || state != carStates[i] || direction != carDirections[i] || alarmed != carAlarmed[i]) {
+                // 旧位置和新位置都要重绘，状态栏也随之更新
+                repaint(carRect(i, carFloors[i]));
+                repaint(carRect(i, floor));
+                repaint(headerRect(i));
+                carFloors[i] = floor;
+                carStates[i] = state;
+                carDirections[i] = direction;
+                carAlarmed[i] = alarmed;
+            }
+            
+            boolean[] lamps = new boolean[floors];
+            for (int requested : elevator.getRequestedFloors()) {
+                lamps[requested - 1] = true;
+            }
+            for (int f = 0; f < floors; f++) {
+                if (lamps[f] != carCallLamps[i][f]) {
+                    carCallLamps[i][f] = lamps[f];
+                    repaint(lampRect(i, f + 1));
+                }
+            }
+        }
+        
+        List<Floor> floorList = elevatorSystem.getFloors();
+        for (int f = 0; f < floors; f++) {
+            boolean up = floorList.get(f).isUpButtonPressed();
+            boolean down = floorList.get(f).isDownButtonPressed();
+            if (up != hallLamps[f][0] || down != hallLamps[f][1]) {
+                hallLamps[f][0] = up;
+                hallLamps[f][1] = down;
+                repaint(hallRect(f + 1));
+            }
+        }
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g2d.setColor(getBackground());
+        g2d.fillRect(clip.x, clip.y, clip.width, clip.height);
+        
+        // 只绘制与裁剪区相交的楼层行和电梯列
+        int topFloor = Math.min(floors, floorAt(clip.y) + 1);
+        int bottomFloor = Math.max(1, floorAt(clip.y + clip.height) - 1);
+        int firstCar = Math.max(0, carAt(clip.x) - 1);
+        int lastCar = Math.min(cars - 1, carAt(clip.x + clip.width) + 1);
+        
+        g2d.setFont(font);
+        for (int floor = bottomFloor; floor <= topFloor; floor++) {
+            int y = rowY(floor);
+            g2d.setColor(Color.BLACK);
+            g2d.drawString(String.valueOf(floor), 4, y + ROW_HEIGHT - 6);
+            paintHallLamps(g2d, floor);
+        }
+        
+        for (int car = firstCar; car <= lastCar; car++) {
+            int x = shaftX(car);
+            if (clip.y < HEADER_HEIGHT) {
+                paintHeader(g2d, car);
+            }
+            // 井道和楼层分隔线
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.fillRect(x, rowY(topFloor), SHAFT_WIDTH, (topFloor - bottomFloor + 1) * ROW_HEIGHT);
+            g2d.setColor(Color.GRAY);
+            for (int floor = bottomFloor; floor <= topFloor; floor++) {
+                g2d.drawLine(x, rowY(floor) + ROW_HEIGHT, x + SHAFT_WIDTH, rowY(floor) + ROW_HEIGHT);
+                paintCarCallLamp(g2d, car, floor);
+            }
+            if (carFloors[car] >= bottomFloor && carFloors[car] <= topFloor) {
+                paintCar(g2d, car);
+            }
+        }
+    }
+    
+    private void paintHeader(Graphics2D g2d, int car) {
+        Rectangle header = headerRect(car);
+        g2d.setColor(getBackground());
+        g2d.fillRect(header.x, header.y, header.width, header.height);
+        g2d.setColor(carAlarmed[car] ? Color.RED : Color.BLACK);
+        g2d.setFont(boldFont);
+        g2d.drawString("电梯 " + (car + 1), header.x + 2, 14);
+        g2d.setFont(font);
+        g2d.drawString(carAlarmed[car] ? "报警中" : stateText(carStates[car]) + " " + directionText(carDirections[car]),
+            header.x + 2, 30);
+    }
+    
+    private void paintCar(Graphics2D g2d, int car) {
+        Rectangle rect = carRect(car, carFloors[car]);
+        int x = rect.x + 3;
+        int y = rect.y + 2;
+        int width = rect.width - 6;
+        int height = rect.height - 4;
+        g2d.setColor(carAlarmed[car] ? Color.RED : Color.BLUE);
+        
+        // 门的开合程度：打开时中间留出空隙，开关过程中空隙减半
+        ElevatorState state = carStates[car];
+        int gap = state == ElevatorState.DOOR_OPENED ? width / 3
+            : (state == ElevatorState.DOOR_OPENING || state == ElevatorState.DOOR_CLOSING) ? width / 6 : 0;
+        if (gap == 0) {
+            g2d.fillRect(x, y, width, height);
+        } else {
+            int door = (width - gap) / 2;
+            g2d.fillRect(x, y, door, height);
+            g2d.fillRect(x + width - door, y, door, height);
+        }
+        
+        if (carAlarmed[car]) {
+            g2d.setColor(Color.YELLOW);
+            g2d.setFont(boldFont);
+            g2d.drawString("!", x + width / 2 - 2, y + height - 4);
+        } else if (gap == 0 && carDirections[car] != Direction.IDLE) {
+            // 方向箭头
+            g2d.setColor(Color.WHITE);
+            int cx = x + width / 2;
+            int cy = y + height / 2;
+            int size = Math.max(3, height / 3);
+            int tip = carDirections[car] == Direction.UP ? -size : size;
+            g2d.fillPolygon(new int[]{cx, cx + size, cx - size}, new int[]{cy + tip, cy - tip, cy - tip}, 3);
+        }
+    }
+    
+    private void paintCarCallLamp(Graphics2D g2d, int car, int floor) {
+        Rectangle rect = lampRect(car, floor);
+        g2d.setColor(carCallLamps[car][floor - 1] ? Color.YELLOW : LAMP_OFF);
+        g2d.fillRect(rect.x + 1, rect.y + 1, rect.width - 2, rect.height - 2);
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.drawRect(rect.x + 1, rect.y + 1, rect.width - 2, rect.height - 2);
+        g2d.setFont(font.deriveFont(10f));
+        g2d.drawString(String.valueOf(floor), rect.x + 4, rect.y + ROW_HEIGHT - 7);
+    }
+    
+    private void paintHallLamps(Graphics2D g2d, int floor) {
+        Rectangle rect = hallRect(floor);
+        int half = rect.width / 2;
+        for (int i = 0; i < 2; i++) {
+            // 顶层没有上行按钮，1层没有下行按钮
+            if ((i == 0 && floor == floors) || (i == 1 && floor == 1)) {
+                continue;
+            }
+            int cx = rect.x + i * half + half / 2;
+            int cy = rect.y + ROW_HEIGHT / 2;
+            int size = 6;
+            int tip = i == 0 ? -size : size;
+            g2d.setColor(hallLamps[floor - 1][i] ? Color.GREEN : LAMP_OFF);
+            g2d.fillPolygon(new int[]{cx, cx + size, cx - size}, new int[]{cy + tip, cy - tip, cy - tip}, 3);
+            g2d.setColor(i == 0 ? Color.RED : Color.BLUE);
+            g2d.drawPolygon(new int[]{cx, cx + size, cx - size}, new int[]{cy + tip, cy - tip, cy - tip}, 3);
+        }
+    }
+    
+    // 点击：外部呼叫灯呼梯，选层灯选层，右键井道弹出控制菜单
+    private void handleClick(MouseEvent e) {
+        int floor = floorAt(e.getY());
+        int x = e.getX();
+        if (SwingUtilities.isRightMouseButton(e)) {
+            int car = carAt(x);
+            if (car >= 0 && car < cars && x >= shaftX(car) && x < shaftX(car) + SHAFT_WIDTH + LAMP_WIDTH) {
+                showCarMenu(car, e);
+            }
+            return;
+        }
+        if (floor < 1 || floor > floors || e.getY() < HEADER_HEIGHT) {
+            return;
+        }
+        
+        Rectangle hall = hallRect(floor);
+        if (hall.contains(e.getPoint())) {
+            Floor floorObj = elevatorSystem.getFloors().get(floor - 1);
+            if (x < hall.x + hall.width / 2) {
+                if (floor < floors) {
+                    floorObj.pressUpButton();
+                }
+            } else if (floor > 1) {
+                floorObj.pressDownButton();
+            }
+            refresh();
+            return;
+        }
+        
+        int car = carAt(x);
+        if (car >= 0 && car < cars && lampRect(car, floor).contains(e.getPoint())) {
+            elevatorSystem.getElevators().get(car).pressFloorButton(floor);
+            refresh();
+        }
+    }
+    
+    private void showCarMenu(int car, MouseEvent e) {
+        Elevator elevator = elevatorSystem.getElevators().get(car);
+        JPopupMenu menu = new JPopupMenu("电梯 " + (car + 1));
+        JMenuItem openItem = new JMenuItem("开门");
+        openItem.addActionListener(event -> elevator.openDoor());
+        JMenuItem closeItem = new JMenuItem("关门");
+        closeItem.addActionListener(event -> elevator.closeDoor());
+        JMenuItem alarmItem = new JMenuItem(elevator.isAlarmed() ? "重置报警" : "报警");
+        alarmItem.addActionListener(event -> {
+            if (elevator.isAlarmed()) {
+                elevator.resetAlarm();
+            } else {
+                elevator.triggerAlarm();
+            }
+        });
+        for (JMenuItem item : new JMenuItem[]{openItem, closeItem, alarmItem}) {
+            item.setFont(font);
+            menu.add(item);
+        }
+        menu.show(this, e.getX(), e.getY());
+    }
+    
+    // 几何计算
+    private int rowY(int floor) {
+        return HEADER_HEIGHT + (floors - floor) * ROW_HEIGHT;
+    }
+    
+    private int floorAt(int y) {
+        return floors - Math.floorDiv(y - HEADER_HEIGHT, ROW_HEIGHT);
+    }
+    
+    private int shaftX(int car) {
+        return LABEL_WIDTH + HALL_WIDTH + COLUMN_GAP + car * COLUMN_WIDTH;
+    }
+    
+    private int carAt(int x) {
+        return Math.floorDiv(x - LABEL_WIDTH - HALL_WIDTH - COLUMN_GAP, COLUMN_WIDTH);
+    }
+    
+    private Rectangle carRect(int car, int floor) {
+        return new Rectangle(shaftX(car), rowY(floor), SHAFT_WIDTH, ROW_HEIGHT + 1);
+    }
+    
+    private Rectangle lampRect(int car, int floor) {
+        return new Rectangle(shaftX(car) + SHAFT_WIDTH, rowY(floor), LAMP_WIDTH, ROW_HEIGHT);
+    }
+    
+    private Rectangle hallRect(int floor) {
+        return new Rectangle(LABEL_WIDTH, rowY(floor), HALL_WIDTH, ROW_HEIGHT);
+    }
+    
+    private Rectangle headerRect(int car) {
+        return new Rectangle(shaftX(car), 0, COLUMN_WIDTH, HEADER_HEIGHT);
+    }
+    
+    static String stateText(ElevatorState state) {
+        switch (state) {
+            case MOVING: return "移动中";
+            case STOPPED: return "停止";
+            case DOOR_OPENING: return "开门中";
+            case DOOR_OPENED: return "门已打开";
+            case DOOR_CLOSING: return "关门中";
+            default: return "未知";
+        }
+    }
+    
+    static String directionText(Direction direction) {
+        switch (direction) {
+            case UP: return "上行";
+            case DOWN: return "下行";
+            case IDLE: return "空闲";
+            default: return "未知";
+        }
+    }
+}
@@ -0,0 +1,118 @@
+// 仿真统计指标：记录乘客等待/乘梯时间，可跨楼宇合并
+public class SimulationMetrics {
+    private static final int MAX_WAIT_SECONDS = 600; // 等待时间直方图上限(秒)，超出的计入最后一格
+    
+    private int buildings; // 参与汇总的楼宇数
+    private long simulatedTime; // 累计模拟时长(ms)
+    private long passengersSpawned; // 产生的乘客数
+    private long passengersBoarded; // 已上梯的乘客数
+    private long passengersDelivered; // 已送达的乘客数
+    private long totalWaitTime; // 累计等待时间(ms)
+    private long totalRideTime; // 累计乘梯时间(ms)
+    private long maxWaitTime; // 最长等待时间(ms)
+    private final long[] waitHistogram = new long[MAX_WAIT_SECONDS + 1]; // 按秒统计的等待时间分布
+    
+    public SimulationMetrics() {
+    }
+    
+    // 记录一栋楼完成的仿真时长
+    public void recordBuilding(long simulatedTime) {
+        this.buildings++;
+        this.simulatedTime += simulatedTime;
+    }
+    
+    public void recordSpawn() {
+        passengersSpawned++;
+    }
+    
+    // 记录乘客上梯，waitTime 为从呼梯到上梯的时间
+    public void recordBoarding(long waitTime) {
+        passengersBoarded++;
+        totalWaitTime += waitTime;
+        maxWaitTime = Math.max(maxWaitTime, waitTime);
+        waitHistogram[(int) Math.min(waitTime / 1000, MAX_WAIT_SECONDS)]++;
+    }
+    
+    // 记录乘客到达目的楼层，rideTime 为从上梯到下梯的时间
+    public void recordDelivery(long rideTime) {
+        passengersDelivered++;
+        totalRideTime += rideTime;
+    }
+    
+    // 合并另一份统计（用于汇总多栋楼）
+    public void merge(SimulationMetrics other) {
+        buildings += other.buildings;
+        simulatedTime += other.simulatedTime;
+        passengersSpawned += other.passengersSpawned;
+        passengersBoarded += other.passengersBoarded;
+        passengersDelivered += other.passengersDelivered;
+        totalWaitTime += other.totalWaitTime;
+        totalRideTime += other.totalRideTime;
+        maxWaitTime = Math.max(maxWaitTime, other.maxWaitTime);
+        for (int i = 0; i < waitHistogram.length; i++) {
+            waitHistogram[i] += other.waitHistogram[i];
+        }
+    }
+    
+    // 平均等待时间(秒)
+    public double getAverageWaitSeconds() {
+        return passengersBoarded == 0 ? 0.0 : totalWaitTime / 1000.0 / passengersBoarded;
+    }
+    
+    // 平均乘梯时间(秒)
+    public double getAverageRideSeconds() {
+        return passengersDelivered == 0 ? 0.0 : totalRideTime / 1000.0 / passengersDelivered;
+    }
+    
+    // 等待时间百分位数(秒)，精度为1秒
+    public int getWaitPercentileSeconds(double percentile) {
+        long target = (long) Math.ceil(passengersBoarded * percentile);
+        long count = 0;
+        for (int i = 0; i < waitHistogram.length; i++) {
+            count += waitHistogram[i];
+            if (count >= target && count > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+    
+    // 每栋楼每小时送达的乘客数
+    public double getDeliveriesPerBuildingHour() {
+        return simulatedTime == 0 ? 0.0 : passengersDelivered * 3600000.0 / simulatedTime;
+    }
+    
+    // Getter 方法
+    public int getBuildings() {
+        return buildings;
+    }
+    
+    public long getSimulatedTime() {
+        return simulatedTime;
+    }
+    
+    public long getPassengersSpawned() {
+        return passengersSpawned;
+    }
+    
+    public long getPassengersBoarded() {
+        return passengersBoarded;
+    }
+    
+    public long getPassengersDelivered() {
+        return passengersDelivered;
+    }
+    
+    public double getMaxWaitSeconds() {
+        return maxWaitTime / 1000.0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("楼宇数: %d, 乘客: 产生 %d / 上梯 %d / 送达 %d, " +
+                "平均等待 %.1fs, P95等待 %ds, 最长等待 %.1fs, 平均乘梯 %.1fs, 每楼每小时送达 %.1f 人",
+            buildings, passengersSpawned, passengersBoarded, passengersDelivered,
+            getAverageWaitSeconds(), getWaitPercentileSeconds(0.95), getMaxWaitSeconds(),
+            getAverageRideSeconds(), getDeliveriesPerBuildingHour());
+    }
+}
@@ -0,0 +1,538 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分配算法基准测试（无界面）
+ * 从文件读入分配/释放 trace，或按可配置的大小分布和寿命生成合成 trace，在各分配算法上重放同一 trace，
+ * 统计吞吐量、分配失败率、外部碎片率随时间的变化、内部碎片率和峰值利用率；
+ * 外部碎片率和（有增量统计的分配器的）分配失败概率在每次操作后采样
+ * 用法: java AllocationBenchmark [选项]
+ *   -trace 文件          重放 trace 文件（格式见 AllocationTrace），不指定时生成合成 trace
+ *   -allocations 次数    合成 trace 的分配次数（默认 100000）
+ *   -sizes 分布          mixed[:最大值] | uniform:最小值-最大值 | exp:均值[:最小值-最大值]（默认 mixed:160K）
+ *   -lifetime 次数       合成 trace 的对象平均寿命，以之后的分配次数计（默认 30）
+ *   -seed 种子           合成 trace 的随机种子（默认 42）
+ *   -save 文件           把生成的 trace 写入文件
+ *   -heap 大小           内存大小（默认 640K）
+ *   -granularity 大小    动态分区的分配粒度（默认 1K）
+ *   -alignment 大小      动态分区的对齐（默认 1K）
+ *   -repeats 次数        计时重放次数（默认 5）
+ *   -csv 文件            把各算法的外部碎片率时间序列写成 CSV
+ *   -threads 线程数      另外测试多线程吞吐量：1、2、4……直到该线程数，比较全局锁和分 arena 加锁
+ */
+public class AllocationBenchmark {
+    private static final int SAMPLES = 100; // 每次统计重放中采样碎片率的次数
+    
+    /**
+     * 被测分配器的统一接口
+     */
+    private interface Allocator {
+        boolean allocate(String processName, long size);
+        
+        boolean deallocate(String processName);
+        
+        double getFragmentation();
+        
+        double getInternalFragmentation();
+        
+        /**
+         * 增量维护的空闲空间统计，没有时返回null
+         */
+        FragmentationStats getStats();
+        
+        void reset();
+    }
+    
+    /**
+     * 动态分区的一种分配算法
+     * 请求大小向上取整到分配粒度和对齐的倍数，记录存活请求的请求大小，
+     * 内部碎片率 = Σ(块大小 - 请求大小) / Σ块大小
+     */
+    private static Allocator partition(final PartitionManager manager, final String algorithm) {
+        return new Allocator() {
+            private final Map<String, Long> requestedSizes = new HashMap<>();
+            private long requestedSize;
+            private long blockSize;
+            
+            public boolean allocate(String processName, long size) {
+                boolean success;
+                switch (algorithm) {
+                    case "首次适应": success = manager.allocateFirstFit(processName, size); break;
+                    case "循环首次适应": success = manager.allocateNextFit(processName, size); break;
+                    case "最佳适应": success = manager.allocateBestFit(processName, size); break;
+                    default: success = manager.allocateWorstFit(processName, size); break;
+                }
+                if (success) {
+                    requestedSizes.put(processName, size);
+                    requestedSize += size;
+                    blockSize += manager.getBlockSize(processName);
+                }
+                return success;
+            }
+            
+            public boolean deallocate(String processName) {
+                long size = manager.getBlockSize(processName);
+                if (!manager.deallocate(processName)) {
+                    return false;
+                }
+                requestedSize -= requestedSizes.remove(processName);
+                blockSize -= size;
+                return true;
+            }
+            
+            public double getFragmentation() {
+                return manager.getFragmentation();
+            }
+            
+            public double getInternalFragmentation() {
+                return blockSize == 0 ? 0.0 : 1.0 - (double) requestedSize / blockSize;
+            }
+            
+            public FragmentationStats getStats() {
+                return manager.getStats();
+            }
+            
+            public void reset() {
+                manager.reset();
+                requestedSizes.clear();
+                requestedSize = 0;
+                blockSize = 0;
+            }
+        };
+    }
+    
+    private static Allocator slab(final PartitionManager manager) {
+        final SlabAllocator slabAllocator = new SlabAllocator(manager);
+        return new Allocator() {
+            public boolean allocate(String processName, long size) {
+                return slabAllocator.allocate(processName, size);
+            }
+            
+            public boolean deallocate(String processName) {
+                return slabAllocator.deallocate(processName);
+            }
+            
+            public double getFragmentation() {
+                return slabAllocator.getFragmentation();
+            }
+            
+            public double getInternalFragmentation() {
+                return slabAllocator.getInternalFragmentation();
+            }
+            
+            public FragmentationStats getStats() {
+                return manager.getStats(); // slab 内部没有外部碎片
+            }
+            
+            public void reset() {
+                slabAllocator.reset();
+                manager.reset();
+            }
+        };
+    }
+    
+    private static Allocator buddy(long heap) {
+        final BuddyAllocator buddyAllocator = new BuddyAllocator(heap);
+        return new Allocator() {
+            public boolean allocate(String processName, long size) {
+                return buddyAllocator.allocate(processName, size);
+            }
+            
+            public boolean deallocate(String processName) {
+                return buddyAllocator.deallocate(processName);
+            }
+            
+            public double getFragmentation() {
+                return buddyAllocator.getFragmentation();
+            }
+            
+            public double getInternalFragmentation() {
+                return buddyAllocator.getInternalFragmentation();
+            }
+            
+            public FragmentationStats getStats() {
+                return null;
+            }
+            
+            public void reset() {
+                buddyAllocator.reset();
+            }
+        };
+    }
+    
+    /**
+     * 整个 PartitionManager 由一把全局锁保护，作为多线程测试的对照
+     */
+    private static Allocator globalLock(final PartitionManager manager) {
+        return new Allocator() {
+            public synchronized boolean allocate(String processName, long size) {
+                return manager.allocateFirstFit(processName, size);
+            }
+            
+            public synchronized boolean deallocate(String processName) {
+                return manager.deallocate(processName);
+            }
+            
+            public synchronized double getFragmentation() {
+                return manager.getFragmentation();
+            }
+            
+            public double getInternalFragmentation() {
+                return 0.0;
+            }
+            
+            public FragmentationStats getStats() {
+                return null;
+            }
+            
+            public synchronized void reset() {
+                manager.reset();
+            }
+        };
+    }
+    
+    private static Allocator arenas(final ConcurrentPartitionAllocator allocator) {
+        return new Allocator() {
+            public boolean allocate(String processName, long size) {
+                return allocator.allocate(processName, size);
+            }
+            
+            public boolean deallocate(String processName) {
+                return allocator.deallocate(processName);
+            }
+            
+            public double getFragmentation() {
+                return allocator.getFragmentation();
+            }
+            
+            public double getInternalFragmentation() {
+                return 0.0;
+            }
+            
+            public FragmentationStats getStats() {
+                return null;
+            }
+            
+            public void reset() {
+                allocator.reset();
+            }
+        };
+    }
+    
+    /**
+     * 一个算法在 trace 上的结果
+     */
+    private static class Result {
+        final String label;
+        double opsPerSecond;
+        double failureRate;
+        double[] fragmentation = new double[SAMPLES]; // 外部碎片率时间序列
+        double meanFragmentation; // 每次操作后采样的平均值
+        double maxFragmentation;
+        double meanFailureProbability = Double.NaN; // 平均大小请求的分配失败概率，每次操作后采样；没有统计时为NaN
+        double meanInternalFragmentation;
+        double peakUtilisation; // 存活请求总大小的峰值 / 内存大小
+        
+        Result(String label) {
+            this.label = label;
+        }
+    }
+    
+    private final AllocationTrace trace;
+    private final long heap;
+    private final long meanRequestSize; // trace 中分配请求的平均大小，用于统计分配失败概率
+    private final List<Result> results = new ArrayList<>();
+    
+    public AllocationBenchmark(AllocationTrace trace, long heap) {
+        this.trace = trace;
+        this.heap = heap;
+        long total = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            total += trace.getSize(i);
+        }
+        this.meanRequestSize = Math.max(1, total / Math.max(1, trace.getAllocationCount()));
+    }
+    
+    /**
+     * 重放一次 trace，返回失败的分配次数；result 不为null时统计碎片率和峰值利用率
+     */
+    private int replay(Allocator allocator, Result result) {
+        allocator.reset();
+        FragmentationStats stats = allocator.getStats();
+        double fragmentationSum = 0;
+        double failureProbabilitySum = 0;
+        int failures = 0;
+        int operations = trace.size();
+        Map<String, Long> live = result == null ? null : new HashMap<>();
+        long liveSize = 0;
+        long peakSize = 0;
+        double internalFragmentation = 0;
+        int nextSample = 0;
+        for (int i = 0; i < operations; i++) {
+            String name = trace.getName(i);
+            if (trace.isAllocation(i)) {
+                long size = trace.getSize(i);
+                if (!allocator.allocate(name, size)) {
+                    failures++;
+                } else if (live != null) {
+                    live.put(name, size);
+                    liveSize += size;
+                    peakSize = Math.max(peakSize, liveSize);
+                }
+            } else if (allocator.deallocate(name) && live != null) {
+                liveSize -= live.remove(name); // 分配失败的请求释放时返回false，不计入
+            }
+            if (result == null) {
+                continue;
+            }
+            double fragmentation = allocator.getFragmentation();
+            fragmentationSum += fragmentation;
+            result.maxFragmentation = Math.max(result.maxFragmentation, fragmentation);
+            if (stats != null) {
+                failureProbabilitySum += stats.getFailureProbability(meanRequestSize);
+            }
+            // 在 (k+1)/SAMPLES 处采样第 k 个点，最后一个点为 trace 结束时
+            if (nextSample < SAMPLES && (long) (i + 1) * SAMPLES >= (long) (nextSample + 1) * operations) {
+                result.fragmentation[nextSample++] = fragmentation;
+                internalFragmentation += allocator.getInternalFragmentation();
+            }
+        }
+        if (result != null) {
+            result.meanInternalFragmentation = internalFragmentation / Math.max(1, nextSample);
+            result.meanFragmentation = fragmentationSum / Math.max(1, operations);
+            if (stats != null) {
+                result.meanFailureProbability = failureProbabilitySum / Math.max(1, operations);
+            }
+            result.peakUtilisation = (double) peakSize / heap;
+        }
+        return failures;
+    }
+    
+    /**
+     * 测试一个分配器：先预热，再计时重放 repeats 次，最后单独重放一次统计碎片率和利用率
+     */
+    private Result run(String label, Allocator allocator, int repeats) {
+        replay(allocator, null);
+        long start = System.nanoTime();
+        for (int r = 0; r < repeats; r++) {
+            replay(allocator, null);
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        
+        Result result = new Result(label);
+        result.opsPerSecond = (double) trace.size() * repeats / elapsed * 1e9;
+        int failures = replay(allocator, result);
+        result.failureRate = (double) failures / Math.max(1, trace.getAllocationCount());
+        results.add(result);
+        return result;
+    }
+    
+    /**
+     * 多线程重放：每个线程重放一遍 trace（进程名加线程前缀），结束时释放自己剩下的对象，
+     * 共重放 repeats 次；返回总耗时(纳秒)，失败的分配次数累加到 failures
+     */
+    private long replayConcurrently(final Allocator allocator, int threads, final int repeats,
+                                    final AtomicInteger failures) throws InterruptedException {
+        allocator.reset();
+        final CyclicBarrier start = new CyclicBarrier(threads + 1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final String[] names = new String[trace.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = "T" + t + ":" + trace.getName(i);
+            }
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    return;
+                }
+                int failed = 0;
+                for (int r = 0; r < repeats; r++) {
+                    for (int i = 0; i < names.length; i++) {
+                        if (!trace.isAllocation(i)) {
+                            allocator.deallocate(names[i]);
+                        } else if (!allocator.allocate(names[i], trace.getSize(i))) {
+                            failed++;
+                        }
+                    }
+                    for (int i = 0; i < names.length; i++) {
+                        if (trace.isAllocation(i)) {
+                            allocator.deallocate(names[i]); // 已释放或分配失败的返回false
+                        }
+                    }
+                }
+                failures.addAndGet(failed);
+            });
+            workers[t].start();
+        }
+        try {
+            start.await();
+        } catch (java.util.concurrent.BrokenBarrierException e) {
+            throw new IllegalStateException(e);
+        }
+        long begin = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return Math.max(1, System.nanoTime() - begin);
+    }
+    
+    /**
+     * 多线程吞吐量：线程数为 1、2、4……maxThreads，内存按线程数等比放大，保证每个线程的内存份额与单线程时相同
+     */
+    private void runConcurrent(long granularity, long alignment, int maxThreads, int repeats) throws InterruptedException {
+        System.out.println(String.format("%n多线程吞吐量（首次适应，可用处理器 %d 个）:", Runtime.getRuntime().availableProcessors()));
+        System.out.println(String.format("%6s %14s %10s %14s %10s %8s", "线程数", "全局锁 操作/秒", "失败率",
+            "分arena 操作/秒", "失败率", "加速比"));
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            long memory = heap * threads;
+            Allocator locked = globalLock(new PartitionManager(memory, granularity, alignment, true));
+            Allocator striped = arenas(new ConcurrentPartitionAllocator(memory, granularity, alignment, threads));
+            double[] opsPerSecond = new double[2];
+            double[] failureRate = new double[2];
+            Allocator[] allocators = {locked, striped};
+            for (int k = 0; k < 2; k++) {
+                replayConcurrently(allocators[k], threads, 1, new AtomicInteger()); // 预热
+                AtomicInteger failures = new AtomicInteger();
+                long elapsed = replayConcurrently(allocators[k], threads, repeats, failures);
+                opsPerSecond[k] = (double) trace.size() * threads * repeats / elapsed * 1e9;
+                failureRate[k] = (double) failures.get() / Math.max(1, (long) trace.getAllocationCount() * threads * repeats);
+            }
+            System.out.println(String.format("%6d %14.0f %9.2f%% %14.0f %9.2f%% %7.2fx", threads, opsPerSecond[0],
+                100 * failureRate[0], opsPerSecond[1], 100 * failureRate[1], opsPerSecond[1] / opsPerSecond[0]));
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+    
+    private static String format(Result result) {
+        // 外部碎片率随时间的变化：把 trace 分成 10 段，每段取平均
+        StringBuilder overTime = new StringBuilder();
+        int segment = SAMPLES / 10;
+        for (int i = 0; i < SAMPLES; i += segment) {
+            double sum = 0;
+            for (int j = i; j < i + segment; j++) {
+                sum += result.fragmentation[j];
+            }
+            overTime.append(String.format(" %3.0f", 100 * sum / segment));
+        }
+        String failureProbability = Double.isNaN(result.meanFailureProbability)
+            ? "-" : String.format("%.2f%%", 100 * result.meanFailureProbability);
+        return String.format("%-16s %12.0f %9.2f%% %9.2f%% %9.2f%% %10s %9.2f%% %9.2f%%  %s", result.label,
+            result.opsPerSecond, 100 * result.failureRate, 100 * result.meanFragmentation, 100 * result.maxFragmentation,
+            failureProbability, 100 * result.meanInternalFragmentation, 100 * result.peakUtilisation, overTime);
+    }
+    
+    /**
+     * 把各算法的外部碎片率时间序列写成 CSV：第一列为 trace 进度(%)，之后每个算法一列
+     */
+    private void writeCsv(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            StringBuilder header = new StringBuilder("进度(%)");
+            for (Result result : results) {
+                header.append(',').append(result.label);
+            }
+            writer.println(header);
+            for (int i = 0; i < SAMPLES; i++) {
+                StringBuilder row = new StringBuilder(String.valueOf((i + 1) * 100 / SAMPLES));
+                for (Result result : results) {
+                    row.append(',').append(String.format("%.4f", result.fragmentation[i]));
+                }
+                writer.println(row);
+            }
+        }
+    }
+    
+    /**
+     * 按 -sizes 参数配置生成器的大小分布
+     */
+    private static void configureSizes(TraceGenerator generator, String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "mixed":
+                generator.setMixedSizes(parts.length > 1 ? AllocationTrace.parseSize(parts[1]) : 160 * MemoryBlock.KB);
+                break;
+            case "uniform": {
+                String[] range = parts[1].split("-");
+                generator.setUniformSizes(AllocationTrace.parseSize(range[0]), AllocationTrace.parseSize(range[1]));
+                break;
+            }
+            case "exp": {
+                long mean = AllocationTrace.parseSize(parts[1]);
+                String[] range = parts.length > 2 ? parts[2].split("-") : new String[] {"1", String.valueOf(mean * 16)};
+                generator.setExponentialSizes(mean, AllocationTrace.parseSize(range[0]), AllocationTrace.parseSize(range[1]));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("未知的大小分布: " + spec);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("-")) {
+                throw new IllegalArgumentException("无法识别的参数: " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        long heap = AllocationTrace.parseSize(options.getOrDefault("heap", "640K"));
+        long granularity = AllocationTrace.parseSize(options.getOrDefault("granularity", "1K"));
+        long alignment = AllocationTrace.parseSize(options.getOrDefault("alignment", "1K"));
+        int repeats = Integer.parseInt(options.getOrDefault("repeats", "5"));
+        
+        AllocationTrace trace;
+        String description;
+        if (options.containsKey("trace")) {
+            trace = AllocationTrace.load(new File(options.get("trace")));
+            description = "trace 文件 " + options.get("trace");
+        } else {
+            long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+            TraceGenerator generator = new TraceGenerator(seed);
+            configureSizes(generator, options.getOrDefault("sizes", "mixed"));
+            generator.setMeanLifetime(Double.parseDouble(options.getOrDefault("lifetime", "30")));
+            trace = generator.generate(Integer.parseInt(options.getOrDefault("allocations", "100000")));
+            description = "合成 trace（" + generator + "，种子 " + seed + "）";
+            if (options.containsKey("save")) {
+                trace.save(new File(options.get("save")), description);
+            }
+        }
+        
+        AllocationBenchmark benchmark = new AllocationBenchmark(trace, heap);
+        System.out.println(String.format("分配算法基准测试: %s, %d 次操作, 内存 %s, 重复 %d 次",
+            description, trace.size(), MemoryBlock.formatSize(heap), repeats));
+        System.out.println(String.format("%-16s %12s %10s %10s %10s %10s %10s %10s  %s", "算法", "操作/秒", "分配失败率",
+            "平均外部碎片", "最大外部碎片", "平均失败概率", "平均内部碎片", "峰值利用率", "外部碎片率随时间变化(%，每段 10%)"));
+        
+        String[] algorithms = {"首次适应", "循环首次适应", "最佳适应", "最坏适应"};
+        for (boolean indexed : new boolean[] {true, false}) {
+            for (String algorithm : algorithms) {
+                PartitionManager manager = new PartitionManager(heap, granularity, alignment, indexed);
+                String label = indexed ? algorithm : algorithm + "(线性)";
+                System.out.println(format(benchmark.run(label, partition(manager, algorithm), repeats)));
+            }
+        }
+        PartitionManager compacting = new PartitionManager(heap, granularity, alignment, true);
+        compacting.setCompactOnFailure(true);
+        System.out.println(format(benchmark.run("首次适应+紧凑", partition(compacting, "首次适应"), repeats)));
+        PartitionManager slabBacking = new PartitionManager(heap, granularity, alignment, true);
+        System.out.println(format(benchmark.run("Slab分配", slab(slabBacking), repeats)));
+        System.out.println(format(benchmark.run("伙伴系统", buddy(heap), repeats)));
+        System.out.println("首次适应+紧凑（预热、计时和统计重放合计）: " + compacting.getCompactor());
+        
+        if (options.containsKey("csv")) {
+            File csv = new File(options.get("csv"));
+            benchmark.writeCsv(csv);
+            System.out.println("外部碎片率时间序列已写入 " + csv.getAbsolutePath());
+        }
+        if (options.containsKey("threads")) {
+            benchmark.runConcurrent(granularity, alignment, Integer.parseInt(options.get("threads")), repeats);
+        }
+    }
+}
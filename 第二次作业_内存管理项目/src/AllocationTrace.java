@@ -0,0 +1,125 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 分配/释放操作序列（trace），可从文本文件读入或写出
+ * 文件每行一个操作，# 开头的行和空行忽略：
+ *   a 名称 大小    分配，大小可带单位 B/K/M/G（不带单位为字节），如 a P1 12K
+ *   f 名称         释放
+ */
+public class AllocationTrace {
+    private final String[] names;
+    private final long[] sizes; // 大于0为分配的字节数，0 表示释放
+    
+    public AllocationTrace(String[] names, long[] sizes) {
+        if (names.length != sizes.length) {
+            throw new IllegalArgumentException("名称和大小的数量不一致");
+        }
+        this.names = names;
+        this.sizes = sizes;
+    }
+    
+    public int size() {
+        return names.length;
+    }
+    
+    public String getName(int index) {
+        return names[index];
+    }
+    
+    /**
+     * 第 index 个操作分配的字节数，释放操作返回 0
+     */
+    public long getSize(int index) {
+        return sizes[index];
+    }
+    
+    public boolean isAllocation(int index) {
+        return sizes[index] > 0;
+    }
+    
+    public int getAllocationCount() {
+        int count = 0;
+        for (long size : sizes) {
+            if (size > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 从文件读入操作序列，格式错误时抛出 IOException 并指出行号
+     */
+    public static AllocationTrace load(File file) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                try {
+                    if (fields[0].equals("a") && fields.length == 3) {
+                        long size = parseSize(fields[2]);
+                        if (size <= 0) {
+                            throw new IllegalArgumentException("分配大小必须大于0");
+                        }
+                        names.add(fields[1]);
+                        sizes.add(size);
+                    } else if (fields[0].equals("f") && fields.length == 2) {
+                        names.add(fields[1]);
+                        sizes.add(0L);
+                    } else {
+                        throw new IllegalArgumentException("无法识别的操作");
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + " 第 " + lineNumber + " 行: " + e.getMessage() + ": " + line);
+                }
+            }
+        }
+        long[] sizeArray = new long[sizes.size()];
+        for (int i = 0; i < sizeArray.length; i++) {
+            sizeArray[i] = sizes.get(i);
+        }
+        return new AllocationTrace(names.toArray(new String[0]), sizeArray);
+    }
+    
+    public void save(File file, String comment) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            writer.println("# " + comment);
+            for (int i = 0; i < names.length; i++) {
+                if (sizes[i] > 0) {
+                    writer.println("a " + names[i] + " " + MemoryBlock.formatSize(sizes[i]));
+                } else {
+                    writer.println("f " + names[i]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 解析带单位的大小：如 512、512B、12K、1.5M、8G
+     */
+    public static long parseSize(String text) {
+        String value = text.trim().toUpperCase();
+        long multiplier = 1;
+        char unit = value.isEmpty() ? ' ' : value.charAt(value.length() - 1);
+        switch (unit) {
+            case 'G': multiplier = MemoryBlock.KB * MemoryBlock.KB * MemoryBlock.KB; break;
+            case 'M': multiplier = MemoryBlock.KB * MemoryBlock.KB; break;
+            case 'K': multiplier = MemoryBlock.KB; break;
+            case 'B': break;
+            default: return Long.parseLong(value);
+        }
+        return Math.round(Double.parseDouble(value.substring(0, value.length() - 1)) * multiplier);
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * 自适应替换缓存（ARC，Megiddo 和 Modha）
+ * 已装入的块分成两个 LRU 链：T1 为装入后只访问过一次的页面，T2 为至少访问过两次的页面；
+ * 另有两个只记页面号的"幽灵"链 B1、B2，记录最近从 T1、T2 置换出去的页面。
+ * 缺页的页面在 B1 中说明 T1 太小，在 B2 中说明 T2 太小，据此调整 T1 的目标大小 p，
+ * 置换时 T1 超过 p 就置换 T1 的表头，否则置换 T2 的表头；
+ * 一次顺序扫描只会冲刷 T1，经常访问的页面留在 T2 中（抗扫描）
+ * 所有链都是侵入式链表，每次访问 O(1)
+ */
+public class ArcPolicy implements ReplacementPolicy {
+    private int capacity;          // 内存块数 c
+    private int target;            // T1 的目标大小 p，在 [0, c] 之间
+    private IndexList t1 = new IndexList(0); // 内存块号
+    private IndexList t2 = new IndexList(0);
+    private IndexList b1 = new IndexList(0); // 页面号
+    private IndexList b2 = new IndexList(0);
+    private int[] framePages = new int[0]; // 内存块中的页面号
+    
+    public String getName() {
+        return "ARC";
+    }
+    
+    public void reset(int frames, int pages) {
+        capacity = frames;
+        target = 0;
+        t1 = new IndexList(frames);
+        t2 = new IndexList(frames);
+        b1 = new IndexList(pages);
+        b2 = new IndexList(pages);
+        framePages = new int[frames];
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        framePages[frame] = page;
+        if (b1.contains(page)) {
+            b1.remove(page);
+            t2.addLast(frame);
+        } else if (b2.contains(page)) {
+            b2.remove(page);
+            t2.addLast(frame);
+        } else {
+            t1.addLast(frame);
+        }
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        if (t1.contains(frame)) {
+            t1.remove(frame);
+            t2.addLast(frame);
+        } else {
+            t2.moveToLast(frame);
+        }
+    }
+    
+    public int evict(int page, long time) {
+        if (b1.contains(page)) {
+            // T1 太小，增大目标
+            target = Math.min(capacity, target + Math.max(b2.size() / b1.size(), 1));
+            return replace(false);
+        }
+        if (b2.contains(page)) {
+            // T2 太小，减小目标
+            target = Math.max(0, target - Math.max(b1.size() / b2.size(), 1));
+            return replace(true);
+        }
+        // 不在任何链中，保持 |T1| + |B1| <= c 且总数 <= 2c
+        if (t1.size() + b1.size() >= capacity) {
+            if (t1.size() < capacity) {
+                b1.removeFirst();
+                return replace(false);
+            }
+            // B1 为空，T1 占满内存：直接置换 T1 的表头，不记入 B1
+            return t1.removeFirst();
+        }
+        if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * capacity) {
+            b2.removeFirst();
+        }
+        return replace(false);
+    }
+    
+    /**
+     * 按目标大小从 T1 或 T2 置换出表头，页面号记入对应的幽灵链
+     */
+    private int replace(boolean inB2) {
+        int frame;
+        if (!t1.isEmpty() && (t2.isEmpty() || t1.size() > target || (inB2 && t1.size() == target))) {
+            frame = t1.removeFirst();
+            b1.addLast(framePages[frame]);
+        } else {
+            frame = t2.removeFirst();
+            b2.addLast(framePages[frame]);
+        }
+        return frame;
+    }
+}
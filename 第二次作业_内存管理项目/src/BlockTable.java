@@ -0,0 +1,83 @@
+import java.util.Arrays;
+
+/**
+ * 内存块表：所有内存块保存在并行的基本类型数组中，块用 int 句柄引用，不为每个块创建对象
+ * 句柄在块存在期间不变（紧凑移动块时只修改起始地址），块被合并掉后句柄回收复用
+ * 块之间按地址组成双向链表（prev/next 为句柄），owner 为占用该块的进程编号，空闲块为 FREE
+ * 数组由 PartitionManager 和 FreeSpaceIndex 直接读写，容量不够时成倍扩大
+ */
+public class BlockTable {
+    public static final int NONE = -1; // 空句柄
+    public static final int FREE = -1; // 空闲块的进程编号
+    private static final int INITIAL_CAPACITY = 64;
+    
+    long[] start = new long[INITIAL_CAPACITY]; // 起始地址(字节)
+    long[] size = new long[INITIAL_CAPACITY]; // 大小(字节)
+    int[] owner = new int[INITIAL_CAPACITY]; // 进程编号，空闲块为 FREE
+    int[] prev = new int[INITIAL_CAPACITY]; // 地址上相邻的前一块
+    int[] next = new int[INITIAL_CAPACITY]; // 地址上相邻的后一块；已回收的句柄用它串成回收链
+    private int used; // 用过的句柄数（含已回收的）
+    private int recycled = NONE; // 回收链的头
+    private int count; // 现存的块数
+    
+    /**
+     * 新建一个块，返回它的句柄（链表指针为空）
+     */
+    int create(long startAddress, long blockSize, int processId) {
+        int block;
+        if (recycled != NONE) {
+            block = recycled;
+            recycled = next[block];
+        } else {
+            if (used == start.length) {
+                grow();
+            }
+            block = used++;
+        }
+        start[block] = startAddress;
+        size[block] = blockSize;
+        owner[block] = processId;
+        prev[block] = NONE;
+        next[block] = NONE;
+        count++;
+        return block;
+    }
+    
+    /**
+     * 回收一个已从链表中摘除的块
+     */
+    void release(int block) {
+        next[block] = recycled;
+        recycled = block;
+        count--;
+    }
+    
+    void clear() {
+        used = 0;
+        recycled = NONE;
+        count = 0;
+    }
+    
+    /**
+     * 句柄的上界（不含），索引等按句柄编号的数组至少需要这么大
+     */
+    int capacity() {
+        return start.length;
+    }
+    
+    /**
+     * 现存的块数
+     */
+    public int count() {
+        return count;
+    }
+    
+    private void grow() {
+        int capacity = start.length * 2;
+        start = Arrays.copyOf(start, capacity);
+        size = Arrays.copyOf(size, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+}
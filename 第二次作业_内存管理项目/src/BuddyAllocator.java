@@ -0,0 +1,197 @@
+import java.util.*;
+
+/**
+ * 伙伴系统分配器，与 PartitionManager 提供相同的分配/释放接口
+ * 每个请求向上取整到 2 的幂分配，每种大小维护一个空闲链表；
+ * 大小为 2^k 的块，其伙伴地址为 address ^ 2^k，释放时与空闲的伙伴逐级合并
+ * 总内存不是 2 的幂时按二进制位拆成多个根块，如 640K 拆为 0K 处的 512K 和 512K 处的 128K。
+ * 根块从大到小排列，每个根块都按自身大小对齐，所以根块内部的伙伴计算同样成立，根块之间不会合并
+ * 内部以 1K 为单位计算阶数和地址，对外的大小和地址与 PartitionManager 一样以字节为单位
+ */
+public class BuddyAllocator {
+    private static final int MIN_ORDER = 0; // 最小块 2^0 = 1K
+    private static final long UNIT = MemoryBlock.KB; // 阶数 0 的块大小(字节)
+    
+    private final int totalMemory; // 总内存（以 1K 为单位）
+    private final int maxOrder; // 最大块的阶数（640K 时最大块为 512K，阶数为 9）
+    private final List<TreeSet<Integer>> freeLists; // 每个阶数的空闲块起始地址，按地址有序
+    private final Map<String, Allocation> allocations = new HashMap<>(); // 进程名 -> 分配记录
+    
+    /**
+     * 一次分配：块的起始地址(K)、阶数和进程实际请求的大小(字节)
+     */
+    private static class Allocation {
+        final int address;
+        final int order;
+        final long requestedSize;
+        
+        Allocation(int address, int order, long requestedSize) {
+            this.address = address;
+            this.order = order;
+            this.requestedSize = requestedSize;
+        }
+    }
+    
+    public BuddyAllocator() {
+        this(PartitionManager.DEFAULT_TOTAL_MEMORY);
+    }
+    
+    /**
+     * @param totalMemory 总内存(字节)，必须是 1K 的倍数
+     */
+    public BuddyAllocator(long totalMemory) {
+        if (totalMemory <= 0 || totalMemory % UNIT != 0 || totalMemory / UNIT > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("伙伴系统的总内存必须是 1K 的正整数倍，且不超过 1T");
+        }
+        this.totalMemory = (int) (totalMemory / UNIT);
+        maxOrder = 31 - Integer.numberOfLeadingZeros(this.totalMemory);
+        freeLists = new ArrayList<>();
+        for (int order = 0; order <= maxOrder; order++) {
+            freeLists.add(new TreeSet<>());
+        }
+        reset();
+    }
+    
+    /**
+     * 重置内存状态：把总内存拆成按地址排列的 2 的幂根块
+     */
+    public void reset() {
+        allocations.clear();
+        for (TreeSet<Integer> freeList : freeLists) {
+            freeList.clear();
+        }
+        int address = 0;
+        for (int order = maxOrder; order >= MIN_ORDER; order--) {
+            if ((totalMemory & (1 << order)) != 0) {
+                freeLists.get(order).add(address);
+                address += 1 << order;
+            }
+        }
+    }
+    
+    public boolean containsProcess(String processName) {
+        return allocations.containsKey(processName);
+    }
+    
+    /**
+     * 分配内存：找到不小于请求大小的最小空闲块，逐级对半分裂到所需大小
+     */
+    public boolean allocate(String processName, long size) {
+        if (size <= 0 || size > (UNIT << maxOrder) || containsProcess(processName)) {
+            return false;
+        }
+        int order = orderFor((int) ((size + UNIT - 1) / UNIT));
+        int current = order;
+        while (current <= maxOrder && freeLists.get(current).isEmpty()) {
+            current++;
+        }
+        if (current > maxOrder) {
+            return false; // 没有足够大的空闲块
+        }
+        
+        int address = freeLists.get(current).pollFirst();
+        // 分裂：保留低地址一半，高地址一半（伙伴）放入下一级空闲链表
+        while (current > order) {
+            current--;
+            freeLists.get(current).add(address + (1 << current));
+        }
+        allocations.put(processName, new Allocation(address, order, size));
+        return true;
+    }
+    
+    /**
+     * 释放内存，并与空闲的伙伴逐级合并
+     */
+    public boolean deallocate(String processName) {
+        Allocation allocation = allocations.remove(processName);
+        if (allocation == null) {
+            return false;
+        }
+        int address = allocation.address;
+        int order = allocation.order;
+        while (order < maxOrder) {
+            int buddy = address ^ (1 << order);
+            if (!freeLists.get(order).remove(buddy)) {
+                break; // 伙伴未空闲（或不存在，如根块的"伙伴"）
+            }
+            address = Math.min(address, buddy);
+            order++;
+        }
+        freeLists.get(order).add(address);
+        return true;
+    }
+    
+    /**
+     * 获取当前内存块列表（按地址排序），已分配块的大小为实际占用的 2 的幂大小
+     */
+    public List<MemoryBlock> getMemoryBlocks() {
+        List<MemoryBlock> blocks = new ArrayList<>();
+        for (Map.Entry<String, Allocation> entry : allocations.entrySet()) {
+            Allocation allocation = entry.getValue();
+            blocks.add(new MemoryBlock(allocation.address * UNIT, UNIT << allocation.order, true, entry.getKey()));
+        }
+        for (int order = MIN_ORDER; order <= maxOrder; order++) {
+            for (int address : freeLists.get(order)) {
+                blocks.add(new MemoryBlock(address * UNIT, UNIT << order, false));
+            }
+        }
+        blocks.sort(Comparator.comparingLong(MemoryBlock::getStartAddress));
+        return blocks;
+    }
+    
+    /**
+     * 进程实际请求的大小(字节)，进程不存在时返回 -1
+     */
+    public long getRequestedSize(String processName) {
+        Allocation allocation = allocations.get(processName);
+        return allocation == null ? -1 : allocation.requestedSize;
+    }
+    
+    /**
+     * 计算外部碎片（与 PartitionManager 相同：1 - 最大空闲块 / 空闲总量）
+     */
+    public double getFragmentation() {
+        int totalFreeSize = 0;
+        int largestFreeSize = 0;
+        
+        for (int order = MIN_ORDER; order <= maxOrder; order++) {
+            int count = freeLists.get(order).size();
+            if (count > 0) {
+                totalFreeSize += count << order;
+                largestFreeSize = 1 << order;
+            }
+        }
+        
+        if (totalFreeSize == 0) {
+            return 0.0;
+        }
+        
+        return 1.0 - (double)largestFreeSize / totalFreeSize;
+    }
+    
+    /**
+     * 计算内部碎片：已分配块中因取整到 2 的幂而浪费的比例
+     */
+    public double getInternalFragmentation() {
+        long allocatedSize = 0;
+        long requestedSize = 0;
+        
+        for (Allocation allocation : allocations.values()) {
+            allocatedSize += UNIT << allocation.order;
+            requestedSize += allocation.requestedSize;
+        }
+        
+        if (allocatedSize == 0) {
+            return 0.0;
+        }
+        
+        return 1.0 - (double)requestedSize / allocatedSize;
+    }
+    
+    /**
+     * 不小于 units 个单位的最小 2 的幂的阶数
+     */
+    private static int orderFor(int units) {
+        return units <= 1 ? MIN_ORDER : 32 - Integer.numberOfLeadingZeros(units - 1);
+    }
+}
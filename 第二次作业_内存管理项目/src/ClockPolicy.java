@@ -0,0 +1,35 @@
+/**
+ * Clock（二次机会）置换：内存块排成环，每块有一个访问位，装入和命中时置 1
+ * 置换时指针从当前位置转动，访问位为 1 的块清零后跳过（给第二次机会），置换第一个访问位为 0 的块
+ */
+public class ClockPolicy implements ReplacementPolicy {
+    private boolean[] referenced = new boolean[0];
+    private int hand; // 时钟指针
+    
+    public String getName() {
+        return "Clock";
+    }
+    
+    public void reset(int frames, int pages) {
+        referenced = new boolean[frames];
+        hand = 0;
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        referenced[frame] = true;
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        referenced[frame] = true;
+    }
+    
+    public int evict(int page, long time) {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % referenced.length;
+        }
+        int frame = hand;
+        hand = (hand + 1) % referenced.length;
+        return frame;
+    }
+}
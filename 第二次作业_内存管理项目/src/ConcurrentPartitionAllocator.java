@@ -0,0 +1,211 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 线程安全的动态分区分配器：把地址空间划分为若干个 arena，每个 arena 是一个独立的 PartitionManager，
+ * 由自己的锁保护，不同 arena 上的分配和释放可以并行
+ * 线程第一次分配时按轮转分到一个“主” arena，之后总是先在主 arena 中按首次适应分配，
+ * 主 arena 放不下时再依次尝试其他 arena；释放时按进程名找到块所在的 arena，只锁这一个 arena
+ * 进程名在所有 arena 中唯一，由并发映射在分配前预留
+ */
+public class ConcurrentPartitionAllocator {
+    /**
+     * 一个 arena：在整个地址空间中的起始地址、管理这段内存的 PartitionManager 和保护它的锁
+     */
+    private static class Arena {
+        final int id;
+        final long baseAddress;
+        final PartitionManager manager;
+        final ReentrantLock lock = new ReentrantLock();
+        
+        Arena(int id, long baseAddress, PartitionManager manager) {
+            this.id = id;
+            this.baseAddress = baseAddress;
+            this.manager = manager;
+        }
+    }
+    
+    private static final Arena RESERVED = new Arena(-1, 0, null); // 进程名已预留、分配尚未完成
+    
+    private final Arena[] arenas;
+    private final long totalMemory;
+    private final ConcurrentHashMap<String, Arena> owners = new ConcurrentHashMap<>(); // 进程名 -> 所在 arena
+    private final AtomicInteger nextHomeArena = new AtomicInteger();
+    private final ThreadLocal<Integer> homeArena = new ThreadLocal<Integer>() {
+        @Override
+        protected Integer initialValue() {
+            return nextHomeArena.getAndIncrement() % arenas.length;
+        }
+    };
+    
+    /**
+     * 按处理器个数划分 arena
+     */
+    public ConcurrentPartitionAllocator(long totalMemory, long granularity, long alignment) {
+        this(totalMemory, granularity, alignment, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param totalMemory 总内存(字节)
+     * @param granularity 分配粒度(字节)，2 的幂
+     * @param alignment 块起始地址的对齐(字节)，2 的幂
+     * @param arenaCount arena 个数；每个 arena 大小相同（按粒度和对齐取整），余下的内存归最后一个 arena
+     */
+    public ConcurrentPartitionAllocator(long totalMemory, long granularity, long alignment, int arenaCount) {
+        if (arenaCount <= 0) {
+            throw new IllegalArgumentException("arena 个数必须大于0");
+        }
+        long unit = Math.max(granularity, alignment);
+        long arenaSize = totalMemory / arenaCount / unit * unit;
+        if (arenaSize == 0) {
+            throw new IllegalArgumentException("内存不足以划分为 " + arenaCount + " 个 arena");
+        }
+        this.totalMemory = totalMemory;
+        this.arenas = new Arena[arenaCount];
+        for (int i = 0; i < arenaCount; i++) {
+            long base = i * arenaSize;
+            long size = i == arenaCount - 1 ? totalMemory - base : arenaSize;
+            arenas[i] = new Arena(i, base, new PartitionManager(size, granularity, alignment, true));
+        }
+    }
+    
+    /**
+     * 分配内存：先在当前线程的主 arena 中按首次适应分配，放不下时依次尝试其他 arena
+     */
+    public boolean allocate(String processName, long size) {
+        if (size <= 0 || owners.putIfAbsent(processName, RESERVED) != null) {
+            return false;
+        }
+        int home = homeArena.get();
+        for (int i = 0; i < arenas.length; i++) {
+            Arena arena = arenas[(home + i) % arenas.length];
+            arena.lock.lock();
+            try {
+                if (arena.manager.allocateFirstFit(processName, size)) {
+                    owners.put(processName, arena);
+                    return true;
+                }
+            } finally {
+                arena.lock.unlock();
+            }
+        }
+        owners.remove(processName);
+        return false;
+    }
+    
+    /**
+     * 释放内存：只锁进程所在的 arena
+     */
+    public boolean deallocate(String processName) {
+        Arena arena = owners.get(processName);
+        if (arena == null || arena == RESERVED) {
+            return false;
+        }
+        arena.lock.lock();
+        try {
+            // 在锁内移除映射，同名进程只能在释放完成后重新分配
+            if (!arena.manager.deallocate(processName)) {
+                return false;
+            }
+            owners.remove(processName, arena);
+            return true;
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+    
+    public boolean containsProcess(String processName) {
+        Arena arena = owners.get(processName);
+        return arena != null && arena != RESERVED;
+    }
+    
+    /**
+     * 进程占用内存的起始地址（整个地址空间中的地址），进程不存在时返回 -1
+     */
+    public long getAddress(String processName) {
+        Arena arena = owners.get(processName);
+        if (arena == null || arena == RESERVED) {
+            return -1;
+        }
+        arena.lock.lock();
+        try {
+            long address = arena.manager.getAddress(processName);
+            return address < 0 ? -1 : arena.baseAddress + address;
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+    
+    /**
+     * 进程所在的 arena 编号，进程不存在时返回 -1
+     */
+    public int getArena(String processName) {
+        Arena arena = owners.get(processName);
+        return arena == null ? -1 : arena.id;
+    }
+    
+    /**
+     * 当前线程的主 arena 编号
+     */
+    public int getHomeArena() {
+        return homeArena.get();
+    }
+    
+    public int getArenaCount() {
+        return arenas.length;
+    }
+    
+    public long getTotalMemory() {
+        return totalMemory;
+    }
+    
+    /**
+     * 重置所有 arena（调用时不应有其他线程在分配或释放）
+     */
+    public void reset() {
+        for (Arena arena : arenas) {
+            arena.lock.lock();
+            try {
+                arena.manager.reset();
+            } finally {
+                arena.lock.unlock();
+            }
+        }
+        owners.clear();
+    }
+    
+    /**
+     * 空闲内存总量(字节)：逐个 arena 加锁读取，并发修改时只是近似值
+     */
+    public long getFreeMemory() {
+        long free = 0;
+        for (Arena arena : arenas) {
+            arena.lock.lock();
+            try {
+                free += arena.manager.getFreeMemory();
+            } finally {
+                arena.lock.unlock();
+            }
+        }
+        return free;
+    }
+    
+    /**
+     * 计算内存碎片：整个地址空间中最大空闲块相对空闲总量，arena 的边界也会把空闲空间分开
+     */
+    public double getFragmentation() {
+        long free = 0;
+        long largest = 0;
+        for (Arena arena : arenas) {
+            arena.lock.lock();
+            try {
+                free += arena.manager.getFreeMemory();
+                largest = Math.max(largest, arena.manager.getLargestFreeSize());
+            } finally {
+                arena.lock.unlock();
+            }
+        }
+        return free == 0 ? 0.0 : 1.0 - (double)largest / free;
+    }
+}
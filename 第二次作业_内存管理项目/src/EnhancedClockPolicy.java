@@ -0,0 +1,59 @@
+/**
+ * 改进型 Clock 置换：每块有访问位 A 和修改位 M，优先置换没有被修改过的页面，以减少写回外存的次数
+ * 置换时从指针位置起最多转四圈：
+ *   第一圈找 (A=0, M=0) 的块，不改变访问位；
+ *   第二圈找 (A=0, M=1) 的块，经过的块访问位清零；
+ *   仍未找到时所有访问位都已清零，重复这两圈必能找到
+ */
+public class EnhancedClockPolicy implements ReplacementPolicy {
+    private boolean[] referenced = new boolean[0];
+    private boolean[] modified = new boolean[0];
+    private int hand; // 时钟指针
+    
+    public String getName() {
+        return "改进型Clock";
+    }
+    
+    public void reset(int frames, int pages) {
+        referenced = new boolean[frames];
+        modified = new boolean[frames];
+        hand = 0;
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        referenced[frame] = true;
+        modified[frame] = false;
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        referenced[frame] = true;
+    }
+    
+    public void pageModified(int frame) {
+        modified[frame] = true;
+    }
+    
+    public int evict(int page, long time) {
+        int frames = referenced.length;
+        while (true) {
+            for (int i = 0; i < frames; i++) {
+                int frame = (hand + i) % frames;
+                if (!referenced[frame] && !modified[frame]) {
+                    return select(frame);
+                }
+            }
+            for (int i = 0; i < frames; i++) {
+                int frame = (hand + i) % frames;
+                if (!referenced[frame]) {
+                    return select(frame);
+                }
+                referenced[frame] = false;
+            }
+        }
+    }
+    
+    private int select(int frame) {
+        hand = (frame + 1) % referenced.length;
+        return frame;
+    }
+}
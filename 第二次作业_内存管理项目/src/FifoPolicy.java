@@ -0,0 +1,36 @@
+/**
+ * 先进先出（FIFO）置换：已装入的块按装入顺序放在环形队列中，置换队首
+ */
+public class FifoPolicy implements ReplacementPolicy {
+    private int[] queue = new int[0];
+    private int head;   // 队首（最早装入）
+    private int count;
+    
+    public String getName() {
+        return "FIFO";
+    }
+    
+    public void reset(int frames, int pages) {
+        queue = new int[frames];
+        head = 0;
+        count = 0;
+    }
+    
+    public boolean ordersByLoadTime() {
+        return true;
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        queue[(head + count++) % queue.length] = frame;
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+    }
+    
+    public int evict(int page, long time) {
+        int frame = queue[head];
+        head = (head + 1) % queue.length;
+        count--;
+        return frame;
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+/**
+ * 空闲空间统计：随空闲块的加入和移除增量维护，所有查询不遍历内存块
+ * 空闲块按大小分入 2 的幂区间（第 k 档为 [2^k, 2^(k+1)) 字节），每档记录块数和字节数；
+ * 最大空闲块由 PartitionManager 在每次修改后更新
+ * 指标参照 Linux 的 /sys/kernel/debug/extfrag：
+ *   外部碎片指数 = 1 - (1 + 空闲总量/请求大小) / 空闲块数，只在没有足够大的空闲块时有意义，
+ *   接近 0 表示分配失败是因为空闲内存不够，接近 1 表示是因为碎片；
+ *   分配失败概率 = 太小、放不下请求的空闲块所占空闲内存的比例，即在按大小加权随机选取的空闲块中分配失败的概率
+ */
+public class FragmentationStats {
+    public static final int BUCKETS = 64; // 大小区间的档数，覆盖整个 long 范围
+    
+    private final int[] blockCounts = new int[BUCKETS]; // 每档的空闲块数
+    private final long[] blockBytes = new long[BUCKETS]; // 每档的空闲字节数
+    private int freeBlockCount;
+    private long freeMemory;
+    private long largestFreeSize;
+    
+    /**
+     * 大小所在的档：floor(log2(size))
+     */
+    public static int bucketOf(long size) {
+        return 63 - Long.numberOfLeadingZeros(size);
+    }
+    
+    void add(long size) {
+        int bucket = bucketOf(size);
+        blockCounts[bucket]++;
+        blockBytes[bucket] += size;
+        freeBlockCount++;
+        freeMemory += size;
+    }
+    
+    void remove(long size) {
+        int bucket = bucketOf(size);
+        blockCounts[bucket]--;
+        blockBytes[bucket] -= size;
+        freeBlockCount--;
+        freeMemory -= size;
+    }
+    
+    void setLargestFreeSize(long largestFreeSize) {
+        this.largestFreeSize = largestFreeSize;
+    }
+    
+    void clear() {
+        Arrays.fill(blockCounts, 0);
+        Arrays.fill(blockBytes, 0);
+        freeBlockCount = 0;
+        freeMemory = 0;
+        largestFreeSize = 0;
+    }
+    
+    public int getFreeBlockCount() {
+        return freeBlockCount;
+    }
+    
+    public long getFreeMemory() {
+        return freeMemory;
+    }
+    
+    public long getLargestFreeSize() {
+        return largestFreeSize;
+    }
+    
+    /**
+     * 空闲块的平均大小(字节)，没有空闲块时为0
+     */
+    public double getMeanFreeBlockSize() {
+        return freeBlockCount == 0 ? 0.0 : (double) freeMemory / freeBlockCount;
+    }
+    
+    /**
+     * 第 bucket 档 [2^bucket, 2^(bucket+1)) 中的空闲块数
+     */
+    public int getBlockCount(int bucket) {
+        return blockCounts[bucket];
+    }
+    
+    /**
+     * 第 bucket 档中的空闲字节数
+     */
+    public long getBlockBytes(int bucket) {
+        return blockBytes[bucket];
+    }
+    
+    /**
+     * 空闲块大小直方图的副本：下标为档号，值为块数
+     */
+    public int[] getHistogram() {
+        return blockCounts.clone();
+    }
+    
+    /**
+     * 外部碎片率：1 - 最大空闲块 / 空闲总量
+     */
+    public double getFragmentation() {
+        return freeMemory == 0 ? 0.0 : 1.0 - (double) largestFreeSize / freeMemory;
+    }
+    
+    /**
+     * 大小为 size 的请求的外部碎片指数，在 [0, 1) 之间；存在足够大的空闲块（分配会成功）时返回 -1
+     * 与 Linux 一样，空闲总量 / size 取整数商：每个空闲块都小于 size，商不超过空闲块数 - 1，结果不会小于 0
+     */
+    public double getFragmentationIndex(long size) {
+        if (largestFreeSize >= size) {
+            return -1.0;
+        }
+        if (freeBlockCount == 0) {
+            return 0.0; // 没有空闲内存，完全是因为内存不够
+        }
+        return 1.0 - (1.0 + freeMemory / size) / freeBlockCount;
+    }
+    
+    /**
+     * 大小为 size 的请求的分配失败概率：小于 size 的空闲块所占空闲内存的比例
+     * 按档统计，size 向上取整到 2 的幂（与伙伴系统的阶数一样），取整后结果是精确的；没有空闲内存时为 1
+     */
+    public double getFailureProbability(long size) {
+        if (freeMemory == 0) {
+            return 1.0;
+        }
+        if (size <= 1) {
+            return 0.0;
+        }
+        int bucket = bucketOf(size - 1) + 1; // ceil(log2(size))
+        long unusable = 0;
+        for (int i = 0; i < bucket && i < BUCKETS; i++) {
+            unusable += blockBytes[i];
+        }
+        return (double) unusable / freeMemory;
+    }
+}
@@ -0,0 +1,261 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 空闲分区索引，同时维护两棵 Treap：
+ * 按 (大小, 地址) 排序的 Treap，用于最佳适应和最坏适应；
+ * 按地址排序、以子树最大空闲块大小增强的 Treap，用于首次适应和循环首次适应。
+ * 所有查询和更新均为 O(log n)。
+ * 节点就是 BlockTable 中空闲块的句柄，左右孩子、优先级等也按句柄存放在数组中，加入和移除不创建对象。
+ * 索引以空闲块的起始地址和大小作为键，修改已在索引中的块之前必须先移除，修改后再重新加入。
+ */
+public class FreeSpaceIndex {
+    private static final int NONE = BlockTable.NONE;
+    
+    private final BlockTable table;
+    private final Random random = new Random(0); // Treap 优先级，固定种子保证结果可复现
+    private int[] priority = new int[0];
+    private int[] addressLeft = new int[0];
+    private int[] addressRight = new int[0];
+    private long[] maxSize = new long[0]; // 按地址排序的 Treap 中，以该节点为根的子树中最大空闲块的大小
+    private int[] sizeLeft = new int[0];
+    private int[] sizeRight = new int[0];
+    private int addressRoot = NONE;
+    private int sizeRoot = NONE;
+    private int count;
+    
+    public FreeSpaceIndex(BlockTable table) {
+        this.table = table;
+    }
+    
+    /**
+     * 加入一个空闲块
+     */
+    public void add(int block) {
+        ensureCapacity(table.capacity());
+        priority[block] = random.nextInt();
+        addressLeft[block] = addressRight[block] = NONE;
+        sizeLeft[block] = sizeRight[block] = NONE;
+        maxSize[block] = table.size[block];
+        addressRoot = insert(addressRoot, block, addressLeft, addressRight, true);
+        sizeRoot = insert(sizeRoot, block, sizeLeft, sizeRight, false);
+        count++;
+    }
+    
+    /**
+     * 移除一个空闲块（必须使用加入时的地址和大小）
+     */
+    public void remove(int block) {
+        addressRoot = delete(addressRoot, block, addressLeft, addressRight, true);
+        sizeRoot = delete(sizeRoot, block, sizeLeft, sizeRight, false);
+        count--;
+    }
+    
+    public void clear() {
+        addressRoot = NONE;
+        sizeRoot = NONE;
+        count = 0;
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    /**
+     * 首次适应：地址最低的、大小不小于 size 的空闲块，没有则返回 NONE
+     */
+    public int firstFit(long size) {
+        return firstFitIn(addressRoot, size);
+    }
+    
+    /**
+     * 从 fromAddress 开始（含）的首次适应，没有则返回 NONE
+     */
+    public int firstFitFrom(long fromAddress, long size) {
+        return firstFitFrom(addressRoot, fromAddress, size);
+    }
+    
+    /**
+     * 最佳适应：大小不小于 size 的最小空闲块（大小相同时取地址最低的），没有则返回 NONE
+     */
+    public int bestFit(long size) {
+        int found = NONE;
+        for (int node = sizeRoot; node != NONE; ) {
+            if (table.size[node] >= size) {
+                found = node;
+                node = sizeLeft[node];
+            } else {
+                node = sizeRight[node];
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * 最坏适应：最大的空闲块（大小相同时取地址最低的），不小于 size 时返回，否则返回 NONE
+     */
+    public int worstFit(long size) {
+        int largest = largest();
+        if (largest == NONE || table.size[largest] < size) {
+            return NONE;
+        }
+        // 同样大小的块中取地址最低的一个
+        return bestFit(table.size[largest]);
+    }
+    
+    /**
+     * 最大的空闲块，没有空闲块时返回 NONE
+     */
+    public int largest() {
+        int node = sizeRoot;
+        if (node == NONE) {
+            return NONE;
+        }
+        while (sizeRight[node] != NONE) {
+            node = sizeRight[node];
+        }
+        return node;
+    }
+    
+    private int firstFitIn(int node, long size) {
+        if (node == NONE || maxSize[node] < size) {
+            return NONE;
+        }
+        while (true) {
+            int left = addressLeft[node];
+            if (left != NONE && maxSize[left] >= size) {
+                node = left;
+            } else if (table.size[node] >= size) {
+                return node;
+            } else {
+                node = addressRight[node];
+            }
+        }
+    }
+    
+    private int firstFitFrom(int node, long fromAddress, long size) {
+        if (node == NONE || maxSize[node] < size) {
+            return NONE;
+        }
+        if (table.start[node] < fromAddress) {
+            return firstFitFrom(addressRight[node], fromAddress, size);
+        }
+        int found = firstFitFrom(addressLeft[node], fromAddress, size);
+        if (found != NONE) {
+            return found;
+        }
+        if (table.size[node] >= size) {
+            return node;
+        }
+        // 右子树地址都不低于 fromAddress，直接做首次适应
+        return firstFitIn(addressRight[node], size);
+    }
+    
+    /**
+     * a 是否排在 b 之前：按地址，或者按 (大小, 地址)
+     */
+    private boolean before(int a, int b, boolean byAddress) {
+        if (byAddress || table.size[a] == table.size[b]) {
+            return table.start[a] < table.start[b];
+        }
+        return table.size[a] < table.size[b];
+    }
+    
+    private int insert(int node, int block, int[] left, int[] right, boolean byAddress) {
+        if (node == NONE) {
+            return block;
+        }
+        if (before(block, node, byAddress)) {
+            left[node] = insert(left[node], block, left, right, byAddress);
+            if (priority[left[node]] > priority[node]) {
+                node = rotateRight(node, left, right, byAddress);
+            }
+        } else {
+            right[node] = insert(right[node], block, left, right, byAddress);
+            if (priority[right[node]] > priority[node]) {
+                node = rotateLeft(node, left, right, byAddress);
+            }
+        }
+        if (byAddress) {
+            update(node);
+        }
+        return node;
+    }
+    
+    private int delete(int node, int block, int[] left, int[] right, boolean byAddress) {
+        if (node == NONE) {
+            return NONE;
+        }
+        if (node != block) {
+            if (before(block, node, byAddress)) {
+                left[node] = delete(left[node], block, left, right, byAddress);
+            } else {
+                right[node] = delete(right[node], block, left, right, byAddress);
+            }
+        } else {
+            // 把要删除的节点旋转到叶子再摘除
+            if (left[node] == NONE) {
+                return right[node];
+            }
+            if (right[node] == NONE) {
+                return left[node];
+            }
+            if (priority[left[node]] > priority[right[node]]) {
+                node = rotateRight(node, left, right, byAddress);
+                right[node] = delete(right[node], block, left, right, byAddress);
+            } else {
+                node = rotateLeft(node, left, right, byAddress);
+                left[node] = delete(left[node], block, left, right, byAddress);
+            }
+        }
+        if (byAddress) {
+            update(node);
+        }
+        return node;
+    }
+    
+    private int rotateRight(int node, int[] left, int[] right, boolean byAddress) {
+        int top = left[node];
+        left[node] = right[top];
+        right[top] = node;
+        if (byAddress) {
+            update(node);
+            update(top);
+        }
+        return top;
+    }
+    
+    private int rotateLeft(int node, int[] left, int[] right, boolean byAddress) {
+        int top = right[node];
+        right[node] = left[top];
+        left[top] = node;
+        if (byAddress) {
+            update(node);
+            update(top);
+        }
+        return top;
+    }
+    
+    private void update(int node) {
+        long max = table.size[node];
+        if (addressLeft[node] != NONE) {
+            max = Math.max(max, maxSize[addressLeft[node]]);
+        }
+        if (addressRight[node] != NONE) {
+            max = Math.max(max, maxSize[addressRight[node]]);
+        }
+        maxSize[node] = max;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (priority.length >= capacity) {
+            return;
+        }
+        priority = Arrays.copyOf(priority, capacity);
+        addressLeft = Arrays.copyOf(addressLeft, capacity);
+        addressRight = Arrays.copyOf(addressRight, capacity);
+        maxSize = Arrays.copyOf(maxSize, capacity);
+        sizeLeft = Arrays.copyOf(sizeLeft, capacity);
+        sizeRight = Arrays.copyOf(sizeRight, capacity);
+    }
+}
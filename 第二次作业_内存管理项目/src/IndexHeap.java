@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+/**
+ * 按编号索引的二叉小顶堆：元素是 [0, capacity) 中的整数编号（内存块号），每个元素有一个 long 键
+ * 元素在堆中的位置记录在按编号索引的数组中，所以可以 O(log n) 地修改任意元素的键或移除任意元素
+ */
+public class IndexHeap {
+    public static final int NONE = -1;
+    
+    private final int[] heap;      // 堆数组，存放编号
+    private final int[] position;  // 编号在堆数组中的下标，不在堆中为 NONE
+    private final long[] key;
+    private int size;
+    
+    public IndexHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new long[capacity];
+        Arrays.fill(position, NONE);
+    }
+    
+    /**
+     * 加入元素，已在堆中时修改它的键
+     */
+    public void put(int id, long newKey) {
+        if (position[id] != NONE) {
+            long oldKey = key[id];
+            key[id] = newKey;
+            if (newKey < oldKey) {
+                siftUp(position[id]);
+            } else {
+                siftDown(position[id]);
+            }
+            return;
+        }
+        key[id] = newKey;
+        heap[size] = id;
+        position[id] = size;
+        siftUp(size++);
+    }
+    
+    public void remove(int id) {
+        int i = position[id];
+        position[id] = NONE;
+        int last = heap[--size];
+        if (i == size) {
+            return;
+        }
+        heap[i] = last;
+        position[last] = i;
+        siftDown(i);
+        siftUp(position[last]);
+    }
+    
+    /**
+     * 移除并返回键最小的元素，堆空时返回 NONE
+     */
+    public int poll() {
+        if (size == 0) {
+            return NONE;
+        }
+        int id = heap[0];
+        remove(id);
+        return id;
+    }
+    
+    public boolean contains(int id) {
+        return position[id] != NONE;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (key[heap[parent]] <= key[id]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+    
+    private void siftDown(int i) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) {
+                child++;
+            }
+            if (key[heap[child]] >= key[id]) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * 侵入式双向链表：元素是 [0, capacity) 中的整数编号（内存块号或页面号），前驱和后继存放在按编号索引的数组中
+ * 加入、移除、移到表尾和取表头都是 O(1)，不创建对象；一个编号同一时刻只能在一个表中
+ * 表头是最早加入（或最久未移到表尾）的元素，用作 FIFO 队列或 LRU 链
+ */
+public class IndexList {
+    public static final int NONE = -1;
+    
+    private final int[] prev;
+    private final int[] next;
+    private final boolean[] member;
+    private int head = NONE;
+    private int tail = NONE;
+    private int size;
+    
+    public IndexList(int capacity) {
+        prev = new int[capacity];
+        next = new int[capacity];
+        member = new boolean[capacity];
+    }
+    
+    public void addLast(int id) {
+        prev[id] = tail;
+        next[id] = NONE;
+        if (tail != NONE) {
+            next[tail] = id;
+        } else {
+            head = id;
+        }
+        tail = id;
+        member[id] = true;
+        size++;
+    }
+    
+    public void remove(int id) {
+        int p = prev[id];
+        int n = next[id];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+        member[id] = false;
+        size--;
+    }
+    
+    /**
+     * 用不在表中的 newId 顶替 id，位置不变
+     */
+    public void replace(int id, int newId) {
+        int p = prev[id];
+        int n = next[id];
+        prev[newId] = p;
+        next[newId] = n;
+        if (p != NONE) {
+            next[p] = newId;
+        } else {
+            head = newId;
+        }
+        if (n != NONE) {
+            prev[n] = newId;
+        } else {
+            tail = newId;
+        }
+        member[id] = false;
+        member[newId] = true;
+    }
+    
+    /**
+     * 移除并返回表头，表空时返回 NONE
+     */
+    public int removeFirst() {
+        int id = head;
+        if (id != NONE) {
+            remove(id);
+        }
+        return id;
+    }
+    
+    public void moveToLast(int id) {
+        if (id != tail) {
+            remove(id);
+            addLast(id);
+        }
+    }
+    
+    public boolean contains(int id) {
+        return member[id];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
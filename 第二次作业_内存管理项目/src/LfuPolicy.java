@@ -0,0 +1,44 @@
+/**
+ * 最不经常使用（LFU）置换：置换装入以来访问次数最少的页面，次数相同时置换最久未访问的
+ * 已装入的块按 (访问次数, 最后访问序号) 放在堆中，访问和置换都是 O(log 内存块数)
+ * 两者合成一个 long 键：访问次数占高 23 位（超过 2^23-1 次按 2^23-1 次计），访问序号占低 40 位（约 1.1 万亿次访问）
+ * 页面被置换后访问次数不保留，重新装入时从 1 开始
+ */
+public class LfuPolicy implements ReplacementPolicy {
+    private static final int COUNT_BITS = 23;
+    private static final int TIME_BITS = 40;
+    private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    
+    private IndexHeap heap = new IndexHeap(0);
+    private int[] counts = new int[0];
+    
+    public String getName() {
+        return "LFU";
+    }
+    
+    public void reset(int frames, int pages) {
+        heap = new IndexHeap(frames);
+        counts = new int[frames];
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        counts[frame] = 1;
+        heap.put(frame, key(frame, time));
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        if (counts[frame] < Integer.MAX_VALUE) {
+            counts[frame]++;
+        }
+        heap.put(frame, key(frame, time));
+    }
+    
+    public int evict(int page, long time) {
+        return heap.poll();
+    }
+    
+    private long key(int frame, long time) {
+        return (Math.min(counts[frame], MAX_COUNT) << TIME_BITS) | (time & TIME_MASK);
+    }
+}
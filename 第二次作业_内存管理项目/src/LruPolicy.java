@@ -0,0 +1,26 @@
+/**
+ * 最近最久未使用（LRU）置换：已装入的块按访问顺序串成双向链表，命中时移到表尾，置换表头
+ */
+public class LruPolicy implements ReplacementPolicy {
+    private IndexList list = new IndexList(0);
+    
+    public String getName() {
+        return "LRU";
+    }
+    
+    public void reset(int frames, int pages) {
+        list = new IndexList(frames);
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        list.addLast(frame);
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        list.moveToLast(frame);
+    }
+    
+    public int evict(int page, long time) {
+        return list.removeFirst();
+    }
+}
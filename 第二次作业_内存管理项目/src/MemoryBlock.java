@@ -1,20 +1,23 @@
 /**
  * 内存块类，用于表示内存中的分区
+ * 地址和大小以字节为单位，使用 long 以支持 GB 级的内存
  */
 public class MemoryBlock {
-    private int startAddress;  // 起始地址
-    private int size;          // 大小
+    public static final long KB = 1024;
+    
+    private long startAddress;  // 起始地址
+    private long size;          // 大小
     private boolean allocated; // 是否已分配
     private String processName; // 进程名（如果已分配）
     
-    public MemoryBlock(int startAddress, int size, boolean allocated) {
+    public MemoryBlock(long startAddress, long size, boolean allocated) {
         this.startAddress = startAddress;
         this.size = size;
         this.allocated = allocated;
         this.processName = null;
     }
     
-    public MemoryBlock(int startAddress, int size, boolean allocated, String processName) {
+    public MemoryBlock(long startAddress, long size, boolean allocated, String processName) {
         this.startAddress = startAddress;
         this.size = size;
         this.allocated = allocated;
@@ -22,11 +25,11 @@ public class MemoryBlock {
     }
     
     // Getter和Setter方法
-    public int getStartAddress() { return startAddress; }
-    public void setStartAddress(int startAddress) { this.startAddress = startAddress; }
+    public long getStartAddress() { return startAddress; }
+    public void setStartAddress(long startAddress) { this.startAddress = startAddress; }
     
-    public int getSize() { return size; }
-    public void setSize(int size) { this.size = size; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
     
     public boolean isAllocated() { return allocated; }
     public void setAllocated(boolean allocated) { this.allocated = allocated; }
@@ -34,18 +37,44 @@ public class MemoryBlock {
     public String getProcessName() { return processName; }
     public void setProcessName(String processName) { this.processName = processName; }
     
-    public int getEndAddress() {
+    public long getEndAddress() {
         return startAddress + size - 1;
     }
     
+    /**
+     * 地址范围的显示文本：按 K 对齐的块显示为 K（结束地址为最后 1K 的起始），否则显示为字节
+     */
+    public String getRangeText() {
+        if (startAddress % KB == 0 && size % KB == 0) {
+            return String.format("%dK - %dK", startAddress / KB, (startAddress + size) / KB - 1);
+        }
+        return String.format("%dB - %dB", startAddress, getEndAddress());
+    }
+    
+    /**
+     * 大小的显示文本：取能整除的最大单位（G/M/K/B）
+     */
+    public static String formatSize(long bytes) {
+        if (bytes != 0 && bytes % (KB * KB * KB) == 0) {
+            return bytes / (KB * KB * KB) + "G";
+        }
+        if (bytes != 0 && bytes % (KB * KB) == 0) {
+            return bytes / (KB * KB) + "M";
+        }
+        if (bytes % KB == 0) {
+            return bytes / KB + "K";
+        }
+        return bytes + "B";
+    }
+    
     @Override
     public String toString() {
         if (allocated) {
-            return String.format("进程%s: %dK - %dK (%dK)", 
-                processName, startAddress, getEndAddress(), size);
+            return String.format("进程%s: %s (%s)", 
+                processName, getRangeText(), formatSize(size));
         } else {
-            return String.format("空闲: %dK - %dK (%dK)", 
-                startAddress, getEndAddress(), size);
+            return String.format("空闲: %s (%s)", 
+                getRangeText(), formatSize(size));
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,105 @@
+/**
+ * 内存紧凑引擎：把已分配块逐个下移到低地址，使空闲空间合并为末尾的一个大空闲块
+ * 支持两种方式：一次性紧凑（stop-the-world），以及每步有时间预算的增量紧凑，
+ * 增量紧凑可以在两步之间暂停，期间照常分配和释放
+ * 统计移动的内存总量、移动次数和每次暂停的时长
+ */
+public class MemoryCompactor {
+    private final PartitionManager manager;
+    private long movedMemory; // 累计移动的内存(字节)
+    private int moves; // 累计移动的块数
+    private int pauses; // 暂停次数（一次性紧凑或增量紧凑的一步各算一次）
+    private long totalPauseNanos;
+    private long maxPauseNanos;
+    private long lastPauseNanos;
+    
+    public MemoryCompactor(PartitionManager manager) {
+        this.manager = manager;
+    }
+    
+    /**
+     * 一次性紧凑：一直移动到空闲空间全部合并为止，返回本次移动的内存(字节)
+     */
+    public long compactFully() {
+        long start = System.nanoTime();
+        long moved = 0;
+        long step;
+        while ((step = manager.compactStep()) > 0) {
+            moved += step;
+            moves++;
+        }
+        recordPause(System.nanoTime() - start, moved);
+        return moved;
+    }
+    
+    /**
+     * 增量紧凑的一步：至少移动一个块，之后在时间预算内继续移动；
+     * 返回紧凑是否已经完成（空闲空间已全部合并）
+     */
+    public boolean compactIncrementally(long budgetNanos) {
+        long start = System.nanoTime();
+        long moved = 0;
+        boolean done = false;
+        do {
+            long step = manager.compactStep();
+            if (step == 0) {
+                done = true;
+                break;
+            }
+            moved += step;
+            moves++;
+        } while (System.nanoTime() - start < budgetNanos);
+        recordPause(System.nanoTime() - start, moved);
+        return done;
+    }
+    
+    private void recordPause(long nanos, long moved) {
+        movedMemory += moved;
+        pauses++;
+        totalPauseNanos += nanos;
+        maxPauseNanos = Math.max(maxPauseNanos, nanos);
+        lastPauseNanos = nanos;
+    }
+    
+    /**
+     * 清空统计
+     */
+    public void resetStatistics() {
+        movedMemory = 0;
+        moves = 0;
+        pauses = 0;
+        totalPauseNanos = 0;
+        maxPauseNanos = 0;
+        lastPauseNanos = 0;
+    }
+    
+    public long getMovedMemory() {
+        return movedMemory;
+    }
+    
+    public int getMoves() {
+        return moves;
+    }
+    
+    public int getPauses() {
+        return pauses;
+    }
+    
+    public long getTotalPauseNanos() {
+        return totalPauseNanos;
+    }
+    
+    public long getMaxPauseNanos() {
+        return maxPauseNanos;
+    }
+    
+    public long getLastPauseNanos() {
+        return lastPauseNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("移动%s（%d个块），暂停%d次，总计%.3fms，最长%.3fms",
+            MemoryBlock.formatSize(movedMemory), moves, pauses, totalPauseNanos / 1e6, maxPauseNanos / 1e6);
+    }
+}
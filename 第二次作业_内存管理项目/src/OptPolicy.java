@@ -0,0 +1,58 @@
+import java.util.Arrays;
+
+/**
+ * 最佳（OPT，Belady）置换：置换下一次访问最晚（或不再访问）的页面，作为其他算法缺页率的下界
+ * prepare 时从后向前扫描一遍访问序列，算出每次访问之后同一页面的下一次访问序号；
+ * 已装入的块按下一次访问序号放在堆中，访问时更新，置换时取最晚的一个
+ */
+public class OptPolicy implements ReplacementPolicy {
+    private static final int NEVER = Integer.MAX_VALUE; // 之后不再访问
+    
+    private int[] sequence;
+    private int[] nextUse = new int[0]; // 访问序号 t 之后，同一页面下一次被访问的序号
+    private IndexHeap heap = new IndexHeap(0); // 键为下一次访问序号的相反数，堆顶即下一次访问最晚的块
+    private int pages;
+    
+    public String getName() {
+        return "OPT";
+    }
+    
+    public void reset(int frames, int pages) {
+        this.pages = pages;
+        sequence = null;
+        heap = new IndexHeap(frames);
+    }
+    
+    public void prepare(int[] pageSequence) {
+        sequence = pageSequence;
+        nextUse = new int[pageSequence.length];
+        int[] last = new int[pages];
+        Arrays.fill(last, NEVER);
+        for (int t = pageSequence.length - 1; t >= 0; t--) {
+            nextUse[t] = last[pageSequence[t]];
+            last[pageSequence[t]] = t;
+        }
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        heap.put(frame, -(long) nextUse(page, time));
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        heap.put(frame, -(long) nextUse(page, time));
+    }
+    
+    public int evict(int page, long time) {
+        return heap.poll();
+    }
+    
+    private int nextUse(int page, long time) {
+        if (sequence == null) {
+            throw new IllegalStateException("OPT 算法需要预先给出访问序列");
+        }
+        if (time >= sequence.length || sequence[(int) time] != page) {
+            throw new IllegalStateException(String.format("第%d次访问的页面%d与预先给出的访问序列不符", time + 1, page));
+        }
+        return nextUse[(int) time];
+    }
+}
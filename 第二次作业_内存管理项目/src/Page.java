@@ -6,7 +6,8 @@ public class Page {
     private boolean inMemory;      // 是否在内存中
     private int physicalFrame;     // 物理块号（如果在内存中）
     private long lastAccessTime;   // 最后访问时间（用于LRU算法）
-    private int loadTime;         // 装入时间（用于FIFO算法）
+    private long loadTime;         // 装入时间（用于FIFO算法）
+    private boolean modified;      // 装入后是否被修改过（置换时需要写回外存）
     
     public Page(int pageNumber) {
         this.pageNumber = pageNumber;
@@ -14,6 +15,7 @@ public class Page {
         this.physicalFrame = -1;
         this.lastAccessTime = 0;
         this.loadTime = 0;
+        this.modified = false;
     }
     
     // Getter和Setter方法
@@ -29,8 +31,11 @@ public class Page {
     public long getLastAccessTime() { return lastAccessTime; }
     public void setLastAccessTime(long lastAccessTime) { this.lastAccessTime = lastAccessTime; }
     
-    public int getLoadTime() { return loadTime; }
-    public void setLoadTime(int loadTime) { this.loadTime = loadTime; }
+    public long getLoadTime() { return loadTime; }
+    public void setLoadTime(long loadTime) { this.loadTime = loadTime; }
+    
+    public boolean isModified() { return modified; }
+    public void setModified(boolean modified) { this.modified = modified; }
     
     @Override
     public String toString() {
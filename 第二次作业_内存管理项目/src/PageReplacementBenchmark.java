@@ -0,0 +1,55 @@
+import java.util.*;
+
+/**
+ * 请求调页的流式模拟（无界面）
+ * 按请求调页实验的访问模式（50%顺序，25%前地址均匀分布，25%后地址均匀分布）逐个生成指令地址，
+ * 每种置换算法用同一随机种子重新生成同一序列，不保存序列，不记访问日志，内存占用与访问次数无关
+ * OPT 需要整个序列，不能流式模拟，不参加比较
+ * 用法: java PageReplacementBenchmark [选项]
+ *   -pages 页面数          总页面数（默认 32）
+ *   -frames 内存块数       内存块数（默认 4）
+ *   -page 指令数           每页指令数（默认 10）
+ *   -references 次数       访问次数（默认 10000000）
+ *   -algorithms 算法       逗号分隔的置换算法（默认除 OPT 外的全部算法）
+ *   -seed 种子             随机种子（默认 42）
+ */
+public class PageReplacementBenchmark {
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("-")) {
+                throw new IllegalArgumentException("无法识别的参数: " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        int totalPages = Integer.parseInt(options.getOrDefault("pages", String.valueOf(PageReplacementManager.DEFAULT_TOTAL_PAGES)));
+        int memoryFrames = Integer.parseInt(options.getOrDefault("frames", String.valueOf(PageReplacementManager.DEFAULT_MEMORY_FRAMES)));
+        int instructionsPerPage = Integer.parseInt(options.getOrDefault("page",
+            String.valueOf(PageReplacementManager.DEFAULT_INSTRUCTIONS_PER_PAGE)));
+        long references = Long.parseLong(options.getOrDefault("references", "10000000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        List<String> algorithms = new ArrayList<>();
+        if (options.containsKey("algorithms")) {
+            algorithms.addAll(Arrays.asList(options.get("algorithms").split(",")));
+        } else {
+            for (String name : ReplacementPolicy.NAMES) {
+                if (!"OPT".equals(name)) {
+                    algorithms.add(name);
+                }
+            }
+        }
+        
+        PageReplacementManager manager = new PageReplacementManager(totalPages, memoryFrames, instructionsPerPage);
+        System.out.println(String.format("请求调页流式模拟: %d 个页面, %d 个内存块, 每页 %d 条指令, %d 次访问, 随机种子 %d",
+            totalPages, memoryFrames, instructionsPerPage, references, seed));
+        System.out.println(String.format("%-12s %14s %14s %10s %14s %14s", "算法", "访问次数", "缺页次数", "缺页率", "访问/秒", "耗时(ms)"));
+        for (String algorithm : algorithms) {
+            long start = System.nanoTime();
+            manager.simulateStream(manager.instructionStream(references, seed), algorithm);
+            long elapsed = Math.max(1, System.nanoTime() - start);
+            System.out.println(String.format("%-12s %14d %14d %9.4f%% %14.0f %14.0f", algorithm, manager.getReferences(),
+                manager.getPageFaults(), 100 * manager.getPageFaultRate(), (double) manager.getReferences() / elapsed * 1e9,
+                elapsed / 1e6));
+        }
+    }
+}
@@ -1,207 +1,389 @@
 import java.util.*;
 
 /**
- * 页面置换管理器，实现FIFO和LRU算法
+ * 页面置换管理器：管理页表和物理内存块，置换算法由 ReplacementPolicy 实现（见 ReplacementPolicy.NAMES）
+ * 空闲块用栈管理；内存已满时由置换算法选择被置换的块，算法按内存块号维护自己的数据结构
+ * 页面数、内存块数和每页指令数可以配置（页面可达数百万个）：页表保存在按页面号索引的基本类型数组中，
+ * 每页只占一个块号和一个修改位；装入时间和最后访问时间只有已装入的页面才有，按内存块号保存
+ * 访问序列可以一次性生成成列表（simulateExecution），也可以逐个从 PrimitiveIterator.OfInt 中取出（simulateStream），
+ * 后者不保存整个序列；访问日志可以关闭或抽样，并限制保留的条数，使内存占用与序列长度无关
  */
 public class PageReplacementManager {
-    private final int TOTAL_PAGES = 32;      // 总页面数
-    private final int MEMORY_FRAMES = 4;     // 内存块数
-    private final int INSTRUCTIONS_PER_PAGE = 10; // 每页指令数
-    private final int TOTAL_INSTRUCTIONS = 320;   // 总指令数
+    public static final int DEFAULT_TOTAL_PAGES = 32;          // 默认总页面数
+    public static final int DEFAULT_MEMORY_FRAMES = 4;         // 默认内存块数
+    public static final int DEFAULT_INSTRUCTIONS_PER_PAGE = 10; // 默认每页指令数
     
-    private Page[] pages;                    // 页表
-    private int[] physicalMemory;           // 物理内存块（存储页面号，-1表示空闲）
-    private int pageFaults;                 // 缺页次数
-    private int currentTime;                // 当前时间
-    private List<String> accessLog;         // 访问日志
+    private final int totalPages;            // 总页面数
+    private final int memoryFrames;          // 内存块数
+    private final int instructionsPerPage;   // 每页指令数
+    private final int totalInstructions;     // 总指令数（地址空间大小）
+    
+    private final int[] pageFrames;          // 页表：页面所在的内存块号，-1表示不在内存中
+    private final boolean[] pageModified;    // 页表：装入后是否被修改过
+    private final int[] physicalMemory;      // 物理内存块（存储页面号，-1表示空闲）
+    private final long[] frameLoadTimes;     // 块中页面的装入时间
+    private final long[] frameAccessTimes;   // 块中页面的最后访问时间
+    private final int[] freeFrames;          // 空闲块栈
+    private int freeFrameCount;
+    private ReplacementPolicy policy;       // 当前的置换算法
+    private int[] futurePages;              // 预先给出的页面访问序列（OPT 算法需要），没有时为null
+    private long pageFaults;                // 缺页次数
+    private long writeBacks;                // 置换出被修改过的页面、需要写回外存的次数
+    private long currentTime;               // 当前时间，即已执行的访问次数
+    private ArrayDeque<String> accessLog;   // 访问日志（最近的 maxLogEntries 条）
+    private long logInterval = 1;           // 每隔多少次访问记一次日志，0 表示不记
+    private int maxLogEntries = Integer.MAX_VALUE; // 日志最多保留的条数，超过时丢弃最早的
     
     public PageReplacementManager() {
+        this(DEFAULT_TOTAL_PAGES, DEFAULT_MEMORY_FRAMES, DEFAULT_INSTRUCTIONS_PER_PAGE);
+    }
+    
+    public PageReplacementManager(int totalPages, int memoryFrames, int instructionsPerPage) {
+        if (totalPages <= 0 || memoryFrames <= 0 || instructionsPerPage <= 0) {
+            throw new IllegalArgumentException("页面数、内存块数和每页指令数必须大于0");
+        }
+        if (memoryFrames > totalPages) {
+            throw new IllegalArgumentException("内存块数不能超过页面数");
+        }
+        if ((long) totalPages * instructionsPerPage > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("地址空间（页面数 × 每页指令数）超过 " + Integer.MAX_VALUE);
+        }
+        this.totalPages = totalPages;
+        this.memoryFrames = memoryFrames;
+        this.instructionsPerPage = instructionsPerPage;
+        this.totalInstructions = totalPages * instructionsPerPage;
+        pageFrames = new int[totalPages];
+        pageModified = new boolean[totalPages];
+        physicalMemory = new int[memoryFrames];
+        frameLoadTimes = new long[memoryFrames];
+        frameAccessTimes = new long[memoryFrames];
+        freeFrames = new int[memoryFrames];
         reset();
     }
     
     /**
-     * 重置系统状态
+     * 重置系统状态（页表和内存块数组复用，置换算法在下一次访问时重新创建）
      */
     public void reset() {
-        pages = new Page[TOTAL_PAGES];
-        for (int i = 0; i < TOTAL_PAGES; i++) {
-            pages[i] = new Page(i);
-        }
+        Arrays.fill(pageFrames, -1);
+        Arrays.fill(pageModified, false);
         
-        physicalMemory = new int[MEMORY_FRAMES];
         Arrays.fill(physicalMemory, -1);
+        Arrays.fill(frameLoadTimes, 0);
+        Arrays.fill(frameAccessTimes, 0);
+        
+        // 块号小的在栈顶，先使用
+        for (int i = 0; i < memoryFrames; i++) {
+            freeFrames[i] = memoryFrames - 1 - i;
+        }
+        freeFrameCount = memoryFrames;
+        policy = null;
+        futurePages = null;
         
         pageFaults = 0;
+        writeBacks = 0;
         currentTime = 0;
-        accessLog = new ArrayList<>();
+        accessLog = new ArrayDeque<>();
     }
     
     /**
-     * 访问指定的指令地址
+     * 预先给出之后要执行的指令序列（从 reset 后的第一次访问开始），OPT 算法据此选择置换页面
+     */
+    public void prepare(List<Integer> instructionSequence) {
+        futurePages = new int[instructionSequence.size()];
+        for (int i = 0; i < futurePages.length; i++) {
+            futurePages[i] = instructionSequence.get(i) / instructionsPerPage;
+        }
+        if (policy != null) {
+            policy.prepare(futurePages);
+        }
+    }
+    
+    /**
+     * 访问指定的指令地址（读访问）
      */
     public boolean accessInstruction(int instructionAddress, String algorithm) {
-        int pageNumber = instructionAddress / INSTRUCTIONS_PER_PAGE;
-        Page page = pages[pageNumber];
-        currentTime++;
+        return accessInstruction(instructionAddress, algorithm, false);
+    }
+    
+    /**
+     * 访问指定的地址，write 为 true 时是写访问，页面被标记为已修改
+     */
+    public boolean accessInstruction(int instructionAddress, String algorithm, boolean write) {
+        usePolicy(algorithm);
+        return access(instructionAddress, write);
+    }
+    
+    /**
+     * 用当前的置换算法访问一个地址
+     */
+    private boolean access(int instructionAddress, boolean write) {
+        if (instructionAddress < 0 || instructionAddress >= totalInstructions) {
+            throw new IllegalArgumentException("指令地址超出地址空间: " + instructionAddress);
+        }
+        boolean logged = logInterval > 0 && currentTime % logInterval == 0;
+        int pageNumber = instructionAddress / instructionsPerPage;
+        int offset = instructionAddress % instructionsPerPage;
+        long time = currentTime++; // 访问序号，从0开始
+        int frame = pageFrames[pageNumber];
         
-        if (page.isInMemory()) {
+        if (frame != -1) {
             // 页面在内存中，命中
-            page.setLastAccessTime(currentTime);
-            int physicalAddress = page.getPhysicalFrame() * INSTRUCTIONS_PER_PAGE + 
-                                (instructionAddress % INSTRUCTIONS_PER_PAGE);
-            accessLog.add(String.format("指令%d -> 页面%d (命中) -> 物理地址%d", 
-                instructionAddress, pageNumber, physicalAddress));
+            frameAccessTimes[frame] = currentTime;
+            policy.pageHit(frame, pageNumber, time);
+            if (write) {
+                pageModified[pageNumber] = true;
+                policy.pageModified(frame);
+            }
+            if (logged) {
+                int physicalAddress = frame * instructionsPerPage + offset;
+                log(String.format("指令%d -> 页面%d (命中) -> 物理地址%d", 
+                    instructionAddress, pageNumber, physicalAddress));
+            }
             return true;
         } else {
             // 页面不在内存中，缺页
             pageFaults++;
             
-            // 寻找空闲块或选择置换页面
+            // 寻找空闲块，没有空闲块时由置换算法选择置换页面
             int frameToUse = findAvailableFrame();
             if (frameToUse == -1) {
-                // 没有空闲块，需要页面置换
-                if ("FIFO".equals(algorithm)) {
-                    frameToUse = selectPageFIFO();
-                } else if ("LRU".equals(algorithm)) {
-                    frameToUse = selectPageLRU();
-                }
+                frameToUse = policy.evict(pageNumber, time);
             }
             
             // 如果该块原来有页面，需要移出
-            if (physicalMemory[frameToUse] != -1) {
-                Page oldPage = pages[physicalMemory[frameToUse]];
-                oldPage.setInMemory(false);
-                oldPage.setPhysicalFrame(-1);
-                accessLog.add(String.format("页面%d被置换出内存块%d", 
-                    oldPage.getPageNumber(), frameToUse));
+            int oldPage = physicalMemory[frameToUse];
+            if (oldPage != -1) {
+                pageFrames[oldPage] = -1;
+                boolean dirty = pageModified[oldPage];
+                if (dirty) {
+                    pageModified[oldPage] = false;
+                    writeBacks++;
+                }
+                if (logged) {
+                    log(String.format(dirty ? "页面%d被置换出内存块%d（已修改，写回外存）" : "页面%d被置换出内存块%d", 
+                        oldPage, frameToUse));
+                }
             }
             
             // 装入新页面
-            page.setInMemory(true);
-            page.setPhysicalFrame(frameToUse);
-            page.setLastAccessTime(currentTime);
-            page.setLoadTime(currentTime);
+            pageFrames[pageNumber] = frameToUse;
+            frameAccessTimes[frameToUse] = currentTime;
+            frameLoadTimes[frameToUse] = currentTime;
             physicalMemory[frameToUse] = pageNumber;
+            policy.pageLoaded(frameToUse, pageNumber, time);
+            if (write) {
+                pageModified[pageNumber] = true;
+                policy.pageModified(frameToUse);
+            }
             
-            int physicalAddress = frameToUse * INSTRUCTIONS_PER_PAGE + 
-                                (instructionAddress % INSTRUCTIONS_PER_PAGE);
-            accessLog.add(String.format("指令%d -> 页面%d (缺页) -> 装入块%d -> 物理地址%d", 
-                instructionAddress, pageNumber, frameToUse, physicalAddress));
+            if (logged) {
+                int physicalAddress = frameToUse * instructionsPerPage + offset;
+                log(String.format("指令%d -> 页面%d (缺页) -> 装入块%d -> 物理地址%d", 
+                    instructionAddress, pageNumber, frameToUse, physicalAddress));
+            }
             return false;
         }
     }
     
     /**
-     * 寻找空闲内存块
+     * 切换到指定的置换算法：新算法按最后访问时间的顺序接管已装入的页面，
+     * 按装入顺序置换的算法（FIFO、2Q）按装入时间的顺序接管
      */
-    private int findAvailableFrame() {
-        for (int i = 0; i < MEMORY_FRAMES; i++) {
-            if (physicalMemory[i] == -1) {
-                return i;
+    private void usePolicy(String algorithm) {
+        if (policy != null && policy.getName().equals(algorithm)) {
+            return;
+        }
+        policy = ReplacementPolicy.create(algorithm);
+        policy.reset(memoryFrames, totalPages);
+        if (futurePages != null) {
+            policy.prepare(futurePages);
+        }
+        Integer[] loaded = new Integer[memoryFrames - freeFrameCount];
+        int count = 0;
+        for (int i = 0; i < memoryFrames; i++) {
+            if (physicalMemory[i] != -1) {
+                loaded[count++] = i;
             }
         }
-        return -1;
-    }
-    
-    /**
-     * FIFO算法选择置换页面
-     */
-    private int selectPageFIFO() {
-        int oldestTime = Integer.MAX_VALUE;
-        int frameToReplace = 0;
-        
-        for (int i = 0; i < MEMORY_FRAMES; i++) {
-            int pageInFrame = physicalMemory[i];
-            if (pageInFrame != -1) {
-                Page page = pages[pageInFrame];
-                if (page.getLoadTime() < oldestTime) {
-                    oldestTime = page.getLoadTime();
-                    frameToReplace = i;
-                }
+        final long[] times = policy.ordersByLoadTime() ? frameLoadTimes : frameAccessTimes;
+        Arrays.sort(loaded, (a, b) -> Long.compare(times[a], times[b]));
+        for (int frame : loaded) {
+            int page = physicalMemory[frame];
+            policy.pageLoaded(frame, page, times[frame] - 1);
+            if (pageModified[page]) {
+                policy.pageModified(frame);
             }
         }
-        return frameToReplace;
     }
     
     /**
-     * LRU算法选择置换页面
+     * 寻找空闲内存块：从空闲块栈弹出，没有时返回-1
      */
-    private int selectPageLRU() {
-        long oldestAccessTime = Long.MAX_VALUE;
-        int frameToReplace = 0;
-        
-        for (int i = 0; i < MEMORY_FRAMES; i++) {
-            int pageInFrame = physicalMemory[i];
-            if (pageInFrame != -1) {
-                Page page = pages[pageInFrame];
-                if (page.getLastAccessTime() < oldestAccessTime) {
-                    oldestAccessTime = page.getLastAccessTime();
-                    frameToReplace = i;
-                }
-            }
-        }
-        return frameToReplace;
+    private int findAvailableFrame() {
+        return freeFrameCount == 0 ? -1 : freeFrames[--freeFrameCount];
     }
     
     /**
-     * 生成指令访问序列
+     * 生成指令访问序列，长度与地址空间大小相同
      * 50%顺序执行，25%前地址均匀分布，25%后地址均匀分布
      */
     public List<Integer> generateInstructionSequence() {
-        List<Integer> sequence = new ArrayList<>();
-        Random random = new Random();
-        
-        int currentPC = 0; // 程序计数器
-        
-        for (int i = 0; i < TOTAL_INSTRUCTIONS; i++) {
-            double prob = random.nextDouble();
-            
-            if (prob < 0.5) {
-                // 50%概率顺序执行
-                sequence.add(currentPC);
-                currentPC = (currentPC + 1) % TOTAL_INSTRUCTIONS;
-            } else if (prob < 0.75) {
-                // 25%概率在前地址部分随机访问
-                int addr = random.nextInt(currentPC == 0 ? 1 : currentPC);
-                sequence.add(addr);
-                currentPC = (addr + 1) % TOTAL_INSTRUCTIONS;
-            } else {
-                // 25%概率在后地址部分随机访问
-                int addr = currentPC + 1 + random.nextInt(TOTAL_INSTRUCTIONS - currentPC - 1);
-                if (addr >= TOTAL_INSTRUCTIONS) {
-                    addr = random.nextInt(TOTAL_INSTRUCTIONS);
-                }
-                sequence.add(addr);
-                currentPC = (addr + 1) % TOTAL_INSTRUCTIONS;
-            }
+        return generateInstructionSequence(totalInstructions);
+    }
+    
+    /**
+     * 生成 count 次访问的指令访问序列
+     */
+    public List<Integer> generateInstructionSequence(int count) {
+        List<Integer> sequence = new ArrayList<>(count);
+        PrimitiveIterator.OfInt stream = instructionStream(count);
+        while (stream.hasNext()) {
+            sequence.add(stream.nextInt());
         }
-        
         return sequence;
     }
     
+    /**
+     * 逐个生成 count 次访问的指令地址，访问模式与 generateInstructionSequence 相同，不保存序列
+     */
+    public PrimitiveIterator.OfInt instructionStream(long count) {
+        return new InstructionGenerator(totalInstructions, count, new Random());
+    }
+    
+    /**
+     * 用固定的随机种子逐个生成指令地址，同一种子得到同一序列
+     */
+    public PrimitiveIterator.OfInt instructionStream(long count, long seed) {
+        return new InstructionGenerator(totalInstructions, count, new Random(seed));
+    }
+    
     /**
      * 模拟执行指令序列
      */
     public void simulateExecution(List<Integer> instructionSequence, String algorithm) {
         reset();
-        accessLog.add("开始执行指令序列...");
+        usePolicy(algorithm);
+        prepare(instructionSequence);
+        log("开始执行指令序列...");
         
         for (int instruction : instructionSequence) {
             accessInstruction(instruction, algorithm);
         }
         
-        double pageFaultRate = (double) pageFaults / TOTAL_INSTRUCTIONS;
-        accessLog.add(String.format("\n执行完成！总指令数: %d, 缺页次数: %d, 缺页率: %.2f%%", 
-            TOTAL_INSTRUCTIONS, pageFaults, pageFaultRate * 100));
+        log(String.format("\n执行完成！总指令数: %d, 缺页次数: %d, 缺页率: %.2f%%", 
+            currentTime, pageFaults, getPageFaultRate() * 100));
+    }
+    
+    /**
+     * 流式模拟：从 addresses 中逐个取出指令地址执行，不保存序列，只更新计数、不记访问日志，内存占用与序列长度无关
+     * OPT 算法需要预先知道整个序列，不能流式模拟
+     */
+    public void simulateStream(PrimitiveIterator.OfInt addresses, String algorithm) {
+        simulateStream(addresses, algorithm, 0, 1);
+    }
+    
+    /**
+     * 流式模拟，访问日志每 logInterval 次访问记录一次（0 为不记），只保留最近的 maxLogEntries 条；
+     * 结束后恢复原来的日志设置
+     */
+    public void simulateStream(PrimitiveIterator.OfInt addresses, String algorithm, long logInterval, int maxLogEntries) {
+        if ("OPT".equals(algorithm)) {
+            throw new IllegalArgumentException("OPT 算法需要整个访问序列，不能流式模拟");
+        }
+        long savedInterval = this.logInterval;
+        int savedMaxEntries = this.maxLogEntries;
+        setLogSampling(logInterval, maxLogEntries);
+        try {
+            reset();
+            usePolicy(algorithm);
+            log("开始执行指令序列...");
+            
+            while (addresses.hasNext()) {
+                access(addresses.nextInt(), false);
+            }
+            
+            log(String.format("\n执行完成！总指令数: %d, 缺页次数: %d, 缺页率: %.2f%%", 
+                currentTime, pageFaults, getPageFaultRate() * 100));
+        } finally {
+            this.logInterval = savedInterval;
+            this.maxLogEntries = savedMaxEntries;
+        }
+    }
+    
+    /**
+     * 设置访问日志：每 interval 次访问记录一次（1 为每次都记，0 为不记），最多保留最近的 maxEntries 条
+     */
+    public void setLogSampling(long interval, int maxEntries) {
+        if (interval < 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("日志间隔不能小于0，保留条数必须大于0");
+        }
+        this.logInterval = interval;
+        this.maxLogEntries = maxEntries;
+        while (accessLog.size() > maxEntries) {
+            accessLog.pollFirst();
+        }
+    }
+    
+    private void log(String entry) {
+        if (accessLog.size() == maxLogEntries) {
+            accessLog.pollFirst();
+        }
+        accessLog.addLast(entry);
+    }
+    
+    /**
+     * 页表的快照（每次调用都新建 Page 对象，页面很多时代价较高）
+     */
+    public Page[] getPages() {
+        Page[] pages = new Page[totalPages];
+        for (int i = 0; i < totalPages; i++) {
+            pages[i] = getPage(i);
+        }
+        return pages;
+    }
+    
+    /**
+     * 一个页面的页表项快照
+     */
+    public Page getPage(int pageNumber) {
+        Page page = new Page(pageNumber);
+        int frame = pageFrames[pageNumber];
+        if (frame != -1) {
+            page.setInMemory(true);
+            page.setPhysicalFrame(frame);
+            page.setLoadTime(frameLoadTimes[frame]);
+            page.setLastAccessTime(frameAccessTimes[frame]);
+            page.setModified(pageModified[pageNumber]);
+        }
+        return page;
     }
     
     // Getter方法
-    public Page[] getPages() { return pages; }
+    public int getTotalPages() { return totalPages; }
+    public int getMemoryFrames() { return memoryFrames; }
+    public int getInstructionsPerPage() { return instructionsPerPage; }
+    public int getTotalInstructions() { return totalInstructions; }
     public int[] getPhysicalMemory() { return physicalMemory; }
-    public int getPageFaults() { return pageFaults; }
-    public List<String> getAccessLog() { return accessLog; }
+    public long getPageFaults() { return pageFaults; }
+    public long getWriteBacks() { return writeBacks; }
+    public long getReferences() { return currentTime; }
+    
+    /**
+     * 访问日志的副本
+     */
+    public List<String> getAccessLog() { return new ArrayList<>(accessLog); }
+    
+    /**
+     * 最近的一条访问日志，没有日志时为null
+     */
+    public String getLastLogEntry() { return accessLog.peekLast(); }
+    
+    /**
+     * 缺页率：缺页次数 / 已执行的访问次数，还没有访问时为0
+     */
     public double getPageFaultRate() { 
-        return (double) pageFaults / TOTAL_INSTRUCTIONS; 
+        return currentTime == 0 ? 0.0 : (double) pageFaults / currentTime; 
     }
     
     /**
@@ -210,7 +392,7 @@ public class PageReplacementManager {
     public String getMemoryStatus() {
         StringBuilder sb = new StringBuilder();
         sb.append("物理内存状态:\n");
-        for (int i = 0; i < MEMORY_FRAMES; i++) {
+        for (int i = 0; i < memoryFrames; i++) {
             if (physicalMemory[i] == -1) {
                 sb.append(String.format("块%d: 空闲\n", i));
             } else {
@@ -219,4 +401,49 @@ public class PageReplacementManager {
         }
         return sb.toString();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 指令地址生成器：50%顺序执行，25%前地址均匀分布，25%后地址均匀分布
+     */
+    private static class InstructionGenerator implements PrimitiveIterator.OfInt {
+        private final int totalInstructions;
+        private final Random random;
+        private long remaining;
+        private int currentPC = 0; // 程序计数器
+        
+        InstructionGenerator(int totalInstructions, long count, Random random) {
+            this.totalInstructions = totalInstructions;
+            this.remaining = count;
+            this.random = random;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+        
+        @Override
+        public int nextInt() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            double prob = random.nextDouble();
+            int addr;
+            if (prob < 0.5) {
+                // 50%概率顺序执行
+                addr = currentPC;
+            } else if (prob < 0.75) {
+                // 25%概率在前地址部分随机访问
+                addr = random.nextInt(currentPC == 0 ? 1 : currentPC);
+            } else {
+                // 25%概率在后地址部分随机访问，已在最后一条指令时在整个地址空间中随机访问
+                addr = currentPC + 1 < totalInstructions
+                    ? currentPC + 1 + random.nextInt(totalInstructions - currentPC - 1)
+                    : random.nextInt(totalInstructions);
+            }
+            currentPC = (addr + 1) % totalInstructions;
+            return addr;
+        }
+    }
+}
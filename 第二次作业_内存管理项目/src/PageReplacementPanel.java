@@ -16,12 +16,22 @@ public class PageReplacementPanel extends JPanel {
     private DefaultTableModel memoryTableModel;
     private JTextArea logArea;
     private JComboBox<String> algorithmComboBox;
+    private JTextField pagesField;
+    private JTextField framesField;
+    private JTextField pageSizeField;
     private JLabel statisticsLabel;
     private JProgressBar simulationProgress;
     private List<Integer> currentSequence;
+    private int currentStep;                // 单步执行到的位置
+    
+    // 界面每一步都重建页表和内存表，并把访问日志追加到文本区域，因此限制可配置的规模和日志条数
+    private static final int MAX_PAGES = 4096;
+    private static final int MAX_INSTRUCTIONS = 65536;
+    private static final int MAX_LOG_ENTRIES = 2000;
     
     public PageReplacementPanel() {
         manager = new PageReplacementManager();
+        manager.setLogSampling(1, MAX_LOG_ENTRIES);
         initializeComponents();
         updateDisplay();
     }
@@ -55,8 +65,24 @@ public class PageReplacementPanel extends JPanel {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         panel.setBorder(BorderFactory.createTitledBorder("模拟控制"));
         
+        panel.add(new JLabel("页面数:"));
+        pagesField = new JTextField(String.valueOf(PageReplacementManager.DEFAULT_TOTAL_PAGES), 5);
+        panel.add(pagesField);
+        
+        panel.add(new JLabel("内存块数:"));
+        framesField = new JTextField(String.valueOf(PageReplacementManager.DEFAULT_MEMORY_FRAMES), 4);
+        panel.add(framesField);
+        
+        panel.add(new JLabel("每页指令数:"));
+        pageSizeField = new JTextField(String.valueOf(PageReplacementManager.DEFAULT_INSTRUCTIONS_PER_PAGE), 4);
+        panel.add(pageSizeField);
+        
+        JButton configureButton = new JButton("应用配置");
+        configureButton.addActionListener(new ConfigureAction());
+        panel.add(configureButton);
+        
         panel.add(new JLabel("置换算法:"));
-        algorithmComboBox = new JComboBox<>(new String[]{"FIFO", "LRU"});
+        algorithmComboBox = new JComboBox<>(ReplacementPolicy.NAMES);
         panel.add(algorithmComboBox);
         
         JButton generateButton = new JButton("生成指令序列");
@@ -74,9 +100,10 @@ public class PageReplacementPanel extends JPanel {
         JButton resetButton = new JButton("重置");
         resetButton.addActionListener(e -> {
             manager.reset();
+            currentStep = 0;
             updateDisplay();
             logArea.setText("系统已重置\n");
-            simulationProgress.setValue(0);
+            updateProgress(0);
         });
         panel.add(resetButton);
         
@@ -158,14 +185,24 @@ public class PageReplacementPanel extends JPanel {
         panel.add(statisticsLabel, BorderLayout.WEST);
         
         // 进度条
-        simulationProgress = new JProgressBar(0, 320);
+        simulationProgress = new JProgressBar();
         simulationProgress.setStringPainted(true);
-        simulationProgress.setString("0/320");
+        updateProgress(0);
         panel.add(simulationProgress, BorderLayout.CENTER);
         
         return panel;
     }
     
+    /**
+     * 更新进度条，总数为当前指令序列的长度（还没有生成序列时为地址空间大小）
+     */
+    private void updateProgress(int done) {
+        int total = currentSequence != null ? currentSequence.size() : manager.getTotalInstructions();
+        simulationProgress.setMaximum(total);
+        simulationProgress.setValue(done);
+        simulationProgress.setString(done + "/" + total + (done == total && done > 0 ? " (完成)" : ""));
+    }
+    
     private void updateDisplay() {
         // 更新页表
         pageTableModel.setRowCount(0);
@@ -206,10 +243,48 @@ public class PageReplacementPanel extends JPanel {
             manager.getPageFaults(), manager.getPageFaultRate() * 100));
     }
     
+    private class ConfigureAction implements ActionListener {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            try {
+                int totalPages = Integer.parseInt(pagesField.getText().trim());
+                int memoryFrames = Integer.parseInt(framesField.getText().trim());
+                int instructionsPerPage = Integer.parseInt(pageSizeField.getText().trim());
+                if (totalPages > MAX_PAGES || (long) totalPages * instructionsPerPage > MAX_INSTRUCTIONS) {
+                    JOptionPane.showMessageDialog(PageReplacementPanel.this, 
+                        String.format("界面最多模拟 %d 个页面、%d 条指令，更大的规模请使用 PageReplacementBenchmark", 
+                            MAX_PAGES, MAX_INSTRUCTIONS), 
+                        "输入错误", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                manager = new PageReplacementManager(totalPages, memoryFrames, instructionsPerPage);
+                manager.setLogSampling(1, MAX_LOG_ENTRIES);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(PageReplacementPanel.this, 
+                    "页面数、内存块数和每页指令数必须是有效的数字", "输入错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(PageReplacementPanel.this, 
+                    ex.getMessage(), "输入错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            currentSequence = null;
+            currentStep = 0;
+            updateDisplay();
+            updateProgress(0);
+            logArea.append(String.format("配置: %d 个页面, %d 个内存块, 每页 %d 条指令（共 %d 条指令）\n\n", 
+                manager.getTotalPages(), manager.getMemoryFrames(), manager.getInstructionsPerPage(), 
+                manager.getTotalInstructions()));
+            logArea.setCaretPosition(logArea.getDocument().getLength());
+        }
+    }
+    
     private class GenerateSequenceAction implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
             currentSequence = manager.generateInstructionSequence();
+            currentStep = 0;
+            updateProgress(0);
             logArea.append("已生成新的指令访问序列\n");
             logArea.append(String.format("指令访问模式: 50%%顺序，25%%前地址随机，25%%后地址随机\n"));
             logArea.append("序列预览: ");
@@ -254,8 +329,7 @@ public class PageReplacementPanel extends JPanel {
                     }
                     
                     updateDisplay();
-                    simulationProgress.setValue(320);
-                    simulationProgress.setString("320/320 (完成)");
+                    updateProgress(currentSequence.size());
                     logArea.setCaretPosition(logArea.getDocument().getLength());
                 }
             };
@@ -265,16 +339,18 @@ public class PageReplacementPanel extends JPanel {
     }
     
     private class StepAction implements ActionListener {
-        private int currentStep = 0;
-        
         @Override
         public void actionPerformed(ActionEvent e) {
             if (currentSequence == null) {
                 currentSequence = manager.generateInstructionSequence();
                 logArea.append("自动生成指令序列\n");
-                manager.reset();
                 currentStep = 0;
             }
+            if (currentStep == 0) {
+                // 从头单步执行，OPT 算法需要预先知道整个序列
+                manager.reset();
+                manager.prepare(currentSequence);
+            }
             
             if (currentStep < currentSequence.size()) {
                 String algorithm = (String) algorithmComboBox.getSelectedItem();
@@ -283,16 +359,14 @@ public class PageReplacementPanel extends JPanel {
                 boolean hit = manager.accessInstruction(instruction, algorithm);
                 
                 // 显示这一步的日志
-                List<String> logs = manager.getAccessLog();
-                if (!logs.isEmpty()) {
-                    String lastLog = logs.get(logs.size() - 1);
+                String lastLog = manager.getLastLogEntry();
+                if (lastLog != null) {
                     logArea.append(String.format("步骤%d: %s\n", currentStep + 1, lastLog));
                 }
                 
                 updateDisplay();
                 currentStep++;
-                simulationProgress.setValue(currentStep);
-                simulationProgress.setString(currentStep + "/320");
+                updateProgress(currentStep);
                 
                 if (currentStep >= currentSequence.size()) {
                     logArea.append(String.format("\n单步执行完成！缺页率: %.2f%%\n", 
@@ -2,90 +2,331 @@ import java.util.*;
 
 /**
  * 分区管理器，实现动态分区分配算法
+ * 默认使用空闲分区索引（FreeSpaceIndex），分配为 O(log n)；
+ * 线性扫描模式保留原始实现，作为正确性和性能对比的参考
+ * 内存块保存在基本类型数组构成的块表（BlockTable）中，按地址组成双向链表（边界标记），进程名驻留为 int 编号，
+ * 释放只需查表并检查前后两个相邻块，为 O(1)；块表不为每个块创建对象，合并掉的块句柄回收复用
+ * 遍历内存块使用游标（cursor）或访问者（forEachBlock），不复制列表
+ * 空闲空间统计（FragmentationStats）随空闲块的变化增量维护，碎片率等指标的查询为 O(1)
+ * 地址和大小以字节为单位（long），内存大小、分配粒度和对齐可配置，默认与原来一样为 640K、按 1K 分配
  */
 public class PartitionManager {
-    private List<MemoryBlock> memoryBlocks;
-    private final int totalMemory = 640; // 总内存640K
+    public static final long DEFAULT_TOTAL_MEMORY = 640 * MemoryBlock.KB; // 默认总内存640K
+    public static final long DEFAULT_GRANULARITY = MemoryBlock.KB; // 默认分配粒度1K
+    private static final int NONE = BlockTable.NONE;
+    private static final int FREE = BlockTable.FREE;
+    
+    /**
+     * 内存块访问者：按地址顺序对每个块调用一次，processId 为 BlockTable.FREE 表示空闲块
+     */
+    public interface BlockVisitor {
+        void visit(long startAddress, long size, int processId);
+    }
+    
+    /**
+     * 按地址顺序遍历内存块的游标，不为每个块创建对象；遍历期间不能分配、释放或紧凑
+     */
+    public class BlockCursor {
+        private int block = NONE;
+        private boolean started;
+        
+        /**
+         * 移到下一个块（第一次调用移到第一个块），没有更多块时返回false
+         */
+        public boolean next() {
+            if (!started) {
+                started = true;
+                block = head;
+            } else if (block != NONE) {
+                block = table.next[block];
+            }
+            return block != NONE;
+        }
+        
+        /**
+         * 回到第一个块之前，游标可以重复使用
+         */
+        public void rewind() {
+            started = false;
+            block = NONE;
+        }
+        
+        public long getStartAddress() {
+            return table.start[block];
+        }
+        
+        public long getSize() {
+            return table.size[block];
+        }
+        
+        public boolean isAllocated() {
+            return table.owner[block] != FREE;
+        }
+        
+        public int getProcessId() {
+            return table.owner[block];
+        }
+        
+        public String getProcessName() {
+            return PartitionManager.this.getProcessName(table.owner[block]);
+        }
+    }
+    
+    private final BlockTable table = new BlockTable(); // 所有内存块
+    private int head; // 地址最低的内存块，链表按地址有序
+    private final Map<String, Integer> processIds = new HashMap<>(); // 进程名 -> 进程编号
+    private String[] processNames = new String[16]; // 进程编号 -> 进程名
+    private int[] processBlocks = new int[16]; // 进程编号 -> 占用的块；回收的编号用它串成回收链
+    private int usedProcessIds; // 用过的进程编号数（含已回收的）
+    private int recycledProcessId = NONE; // 回收链的头
+    private final long totalMemory; // 总内存(字节)
+    private final long granularity; // 分配粒度：请求大小向上取整到它的倍数
+    private final long alignment; // 对齐：块的起始地址都是它的倍数
+    private final long unit; // 块大小的取整单位，取粒度和对齐中较大的一个，保证所有块的起始地址都对齐
+    private final boolean indexed; // 是否使用空闲分区索引
+    private final FreeSpaceIndex freeIndex; // 空闲分区索引（线性扫描模式下为null）
+    private long nextFitCursor; // 循环首次适应的游标：上次分配结束的地址
+    private final FragmentationStats stats = new FragmentationStats(); // 空闲空间统计，含空闲内存总量
+    private boolean largestStale; // 最大空闲块已被移除，需要重新查找
+    private final MemoryCompactor compactor = new MemoryCompactor(this);
+    private boolean compactOnFailure; // 空闲总量足够但没有足够大的空闲块时，是否紧凑后重试
     
     public PartitionManager() {
-        memoryBlocks = new ArrayList<>();
-        // 初始化时整个内存都是空闲的
-        memoryBlocks.add(new MemoryBlock(0, totalMemory, false));
+        this(true);
+    }
+    
+    /**
+     * @param indexed true 使用空闲分区索引，false 使用线性扫描（参考实现）
+     */
+    public PartitionManager(boolean indexed) {
+        this(DEFAULT_TOTAL_MEMORY, DEFAULT_GRANULARITY, DEFAULT_GRANULARITY, indexed);
+    }
+    
+    /**
+     * @param totalMemory 总内存(字节)，必须是粒度和对齐的倍数
+     * @param granularity 分配粒度(字节)，2 的幂，如 1 按字节分配，4096 按页分配
+     * @param alignment 块起始地址的对齐(字节)，2 的幂
+     * @param indexed true 使用空闲分区索引，false 使用线性扫描（参考实现）
+     */
+    public PartitionManager(long totalMemory, long granularity, long alignment, boolean indexed) {
+        if (Long.bitCount(granularity) != 1 || Long.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("分配粒度和对齐必须是 2 的幂");
+        }
+        this.unit = Math.max(granularity, alignment);
+        if (totalMemory <= 0 || totalMemory % unit != 0) {
+            throw new IllegalArgumentException("总内存必须是分配粒度和对齐的正整数倍");
+        }
+        this.totalMemory = totalMemory;
+        this.granularity = granularity;
+        this.alignment = alignment;
+        this.indexed = indexed;
+        this.freeIndex = indexed ? new FreeSpaceIndex(table) : null;
+        reset();
     }
     
     /**
      * 重置内存状态
      */
     public void reset() {
-        memoryBlocks.clear();
-        memoryBlocks.add(new MemoryBlock(0, totalMemory, false));
+        processIds.clear();
+        Arrays.fill(processNames, 0, usedProcessIds, null);
+        usedProcessIds = 0;
+        recycledProcessId = NONE;
+        nextFitCursor = 0;
+        // 初始化时整个内存都是空闲的
+        table.clear();
+        stats.clear();
+        if (indexed) {
+            freeIndex.clear();
+        }
+        head = table.create(0, totalMemory, FREE);
+        addFree(head);
+        largestStale = false;
+    }
+    
+    public boolean isIndexed() {
+        return indexed;
+    }
+    
+    public long getTotalMemory() {
+        return totalMemory;
+    }
+    
+    public long getGranularity() {
+        return granularity;
+    }
+    
+    public long getAlignment() {
+        return alignment;
+    }
+    
+    /**
+     * 请求大小实际占用的块大小：向上取整到粒度和对齐的倍数
+     */
+    public long roundSize(long size) {
+        return (size + unit - 1) & -unit;
+    }
+    
+    /**
+     * 进程是否已分配内存（进程名唯一，已存在的进程名不能再次分配）
+     */
+    public boolean containsProcess(String processName) {
+        return processIds.containsKey(processName);
+    }
+    
+    /**
+     * 进程占用内存的起始地址，进程不存在时返回 -1（紧凑会移动块，地址需要时再取）
+     */
+    public long getAddress(String processName) {
+        Integer processId = processIds.get(processName);
+        return processId == null ? -1 : table.start[processBlocks[processId]];
+    }
+    
+    /**
+     * 进程占用的块大小，进程不存在时返回 -1
+     */
+    public long getBlockSize(String processName) {
+        Integer processId = processIds.get(processName);
+        return processId == null ? -1 : table.size[processBlocks[processId]];
+    }
+    
+    /**
+     * 进程编号对应的进程名，空闲块（BlockTable.FREE）返回null
+     */
+    public String getProcessName(int processId) {
+        return processId == FREE ? null : processNames[processId];
     }
     
     /**
      * 首次适应算法分配内存
      */
-    public boolean allocateFirstFit(String processName, int size) {
-        for (int i = 0; i < memoryBlocks.size(); i++) {
-            MemoryBlock block = memoryBlocks.get(i);
-            if (!block.isAllocated() && block.getSize() >= size) {
+    public boolean allocateFirstFit(String processName, long size) {
+        size = roundSize(size);
+        if (size <= 0 || containsProcess(processName)) {
+            return false;
+        }
+        if (indexed) {
+            return allocateBlock(freeIndex.firstFit(size), processName, size);
+        }
+        return allocateBlock(findFreeBlockFrom(0, size), processName, size);
+    }
+    
+    /**
+     * 循环首次适应算法分配内存：从上次分配结束的位置开始找，找到末尾后回到开头
+     */
+    public boolean allocateNextFit(String processName, long size) {
+        size = roundSize(size);
+        if (size <= 0 || containsProcess(processName)) {
+            return false;
+        }
+        int block;
+        if (indexed) {
+            block = freeIndex.firstFitFrom(nextFitCursor, size);
+            if (block == NONE) {
+                block = freeIndex.firstFit(size);
+            }
+        } else {
+            block = findFreeBlockFrom(nextFitCursor, size);
+            if (block == NONE) {
+                block = findFreeBlockFrom(0, size);
+            }
+        }
+        if (!allocateBlock(block, processName, size)) {
+            return false;
+        }
+        // 紧凑后重试时分配的不是原先选中的块，按实际分配的块更新游标
+        int allocated = processBlocks[processIds.get(processName)];
+        nextFitCursor = (table.start[allocated] + table.size[allocated]) % totalMemory;
+        return true;
+    }
+    
+    /**
+     * 线性扫描：起始地址不低于 fromAddress 的第一个足够大的空闲块
+     */
+    private int findFreeBlockFrom(long fromAddress, long size) {
+        for (int block = head; block != NONE; block = table.next[block]) {
+            if (table.owner[block] == FREE && table.size[block] >= size && table.start[block] >= fromAddress) {
                 // 找到合适的空闲块
-                if (block.getSize() == size) {
-                    // 大小正好相等，直接分配
-                    block.setAllocated(true);
-                    block.setProcessName(processName);
-                } else {
-                    // 需要分割块
-                    MemoryBlock allocatedBlock = new MemoryBlock(
-                        block.getStartAddress(), size, true, processName);
-                    MemoryBlock remainingBlock = new MemoryBlock(
-                        block.getStartAddress() + size, 
-                        block.getSize() - size, false);
-                    
-                    memoryBlocks.set(i, allocatedBlock);
-                    memoryBlocks.add(i + 1, remainingBlock);
-                }
-                return true;
+                return block;
             }
         }
-        return false; // 没有找到合适的空闲块
+        return NONE; // 没有找到合适的空闲块
     }
     
     /**
      * 最佳适应算法分配内存
      */
-    public boolean allocateBestFit(String processName, int size) {
-        int bestIndex = -1;
-        int bestSize = Integer.MAX_VALUE;
+    public boolean allocateBestFit(String processName, long size) {
+        size = roundSize(size);
+        if (size <= 0 || containsProcess(processName)) {
+            return false;
+        }
+        if (indexed) {
+            return allocateBlock(freeIndex.bestFit(size), processName, size);
+        }
+        int bestBlock = NONE;
         
         // 找到最小的足够大的空闲块
-        for (int i = 0; i < memoryBlocks.size(); i++) {
-            MemoryBlock block = memoryBlocks.get(i);
-            if (!block.isAllocated() && block.getSize() >= size && block.getSize() < bestSize) {
-                bestIndex = i;
-                bestSize = block.getSize();
+        for (int block = head; block != NONE; block = table.next[block]) {
+            if (table.owner[block] == FREE && table.size[block] >= size
+                    && (bestBlock == NONE || table.size[block] < table.size[bestBlock])) {
+                bestBlock = block;
             }
         }
         
-        if (bestIndex == -1) {
-            return false; // 没有找到合适的空闲块
+        return allocateBlock(bestBlock, processName, size);
+    }
+    
+    /**
+     * 最坏适应算法分配内存：总是从最大的空闲块中分配
+     */
+    public boolean allocateWorstFit(String processName, long size) {
+        size = roundSize(size);
+        if (size <= 0 || containsProcess(processName)) {
+            return false;
+        }
+        if (indexed) {
+            return allocateBlock(freeIndex.worstFit(size), processName, size);
         }
+        int worstBlock = NONE;
         
-        MemoryBlock bestBlock = memoryBlocks.get(bestIndex);
-        if (bestBlock.getSize() == size) {
-            // 大小正好相等，直接分配
-            bestBlock.setAllocated(true);
-            bestBlock.setProcessName(processName);
-        } else {
+        // 找到最大的空闲块
+        for (int block = head; block != NONE; block = table.next[block]) {
+            if (table.owner[block] == FREE && table.size[block] >= size
+                    && (worstBlock == NONE || table.size[block] > table.size[worstBlock])) {
+                worstBlock = block;
+            }
+        }
+        
+        return allocateBlock(worstBlock, processName, size);
+    }
+    
+    /**
+     * 在选出的空闲块开头分配 size 大小，剩余部分分割为新的空闲块插入其后；block 为 NONE 表示没有合适的空闲块，
+     * 此时若开启了紧凑且空闲总量足够，紧凑后在合并出的空闲块中分配
+     */
+    private boolean allocateBlock(int block, String processName, long size) {
+        if (block == NONE) {
+            if (!compactOnFailure || stats.getFreeMemory() < size) {
+                return false;
+            }
+            compactor.compactFully();
+            block = lowestFreeBlock(); // 紧凑后只剩这一个空闲块
+            if (block == NONE || table.size[block] < size) {
+                return false;
+            }
+        }
+        removeFree(block);
+        if (table.size[block] > size) {
             // 需要分割块
-            MemoryBlock allocatedBlock = new MemoryBlock(
-                bestBlock.getStartAddress(), size, true, processName);
-            MemoryBlock remainingBlock = new MemoryBlock(
-                bestBlock.getStartAddress() + size, 
-                bestBlock.getSize() - size, false);
-            
-            memoryBlocks.set(bestIndex, allocatedBlock);
-            memoryBlocks.add(bestIndex + 1, remainingBlock);
+            int remainingBlock = table.create(table.start[block] + size, table.size[block] - size, FREE);
+            table.size[block] = size;
+            insertAfter(block, remainingBlock);
+            addFree(remainingBlock);
         }
+        int processId = internProcess(processName, block);
+        table.owner[block] = processId;
+        refreshLargest();
         return true;
     }
     
@@ -93,88 +334,303 @@ public class PartitionManager {
      * 释放内存
      */
     public boolean deallocate(String processName) {
-        for (int i = 0; i < memoryBlocks.size(); i++) {
-            MemoryBlock block = memoryBlocks.get(i);
-            if (block.isAllocated() && processName.equals(block.getProcessName())) {
-                block.setAllocated(false);
-                block.setProcessName(null);
-                
-                // 合并相邻的空闲块
-                mergeAdjacentBlocks();
-                return true;
+        Integer processId = processIds.remove(processName);
+        if (processId == null) {
+            return false;
+        }
+        int block = processBlocks[processId];
+        releaseProcess(processId);
+        table.owner[block] = FREE;
+        
+        // 合并相邻的空闲块：只需检查前后两个相邻块
+        int prev = table.prev[block];
+        if (prev != NONE && table.owner[prev] == FREE) {
+            removeFree(prev); // 索引和统计以大小为键，修改前先移出
+            table.size[prev] += table.size[block];
+            unlink(block);
+            table.release(block);
+            block = prev;
+        }
+        int next = table.next[block];
+        if (next != NONE && table.owner[next] == FREE) {
+            removeFree(next);
+            table.size[block] += table.size[next];
+            unlink(next);
+            table.release(next);
+        }
+        addFree(block);
+        refreshLargest();
+        return true;
+    }
+    
+    /**
+     * 为进程名分配一个进程编号（优先复用回收的编号）并记录它占用的块
+     */
+    private int internProcess(String processName, int block) {
+        int processId;
+        if (recycledProcessId != NONE) {
+            processId = recycledProcessId;
+            recycledProcessId = processBlocks[processId];
+        } else {
+            if (usedProcessIds == processNames.length) {
+                processNames = Arrays.copyOf(processNames, usedProcessIds * 2);
+                processBlocks = Arrays.copyOf(processBlocks, usedProcessIds * 2);
             }
+            processId = usedProcessIds++;
+        }
+        processNames[processId] = processName;
+        processBlocks[processId] = block;
+        processIds.put(processName, processId);
+        return processId;
+    }
+    
+    private void releaseProcess(int processId) {
+        processNames[processId] = null;
+        processBlocks[processId] = recycledProcessId;
+        recycledProcessId = processId;
+    }
+    
+    /**
+     * 紧凑的一步：把地址最低的空闲块之后的已分配块下移到该空闲块的起始地址，
+     * 空闲块随之上移并与后面的空闲块合并。返回移动的内存大小(字节)，已经没有可移动的块时返回0
+     * 每一步只移动一个块，可以在任意两步之间暂停、插入其他分配和释放
+     */
+    public long compactStep() {
+        int free = lowestFreeBlock();
+        if (free == NONE || table.next[free] == NONE) {
+            return 0; // 没有空闲块，或者空闲空间已经全部在末尾
         }
-        return false;
+        int block = table.next[free]; // 相邻的空闲块总是已合并，所以这是已分配块
+        removeFree(free);
+        
+        // 交换两块在链表中的位置和地址
+        unlink(block);
+        insertBefore(free, block);
+        table.start[block] = table.start[free];
+        table.start[free] = table.start[block] + table.size[block];
+        
+        int next = table.next[free];
+        if (next != NONE && table.owner[next] == FREE) {
+            removeFree(next);
+            table.size[free] += table.size[next];
+            unlink(next);
+            table.release(next);
+        }
+        addFree(free);
+        refreshLargest();
+        return table.size[block];
     }
     
     /**
-     * 合并相邻的空闲块
+     * 空闲块加入索引和统计
      */
-    private void mergeAdjacentBlocks() {
-        for (int i = 0; i < memoryBlocks.size() - 1; i++) {
-            MemoryBlock current = memoryBlocks.get(i);
-            MemoryBlock next = memoryBlocks.get(i + 1);
-            
-            if (!current.isAllocated() && !next.isAllocated()) {
-                // 合并两个相邻的空闲块
-                current.setSize(current.getSize() + next.getSize());
-                memoryBlocks.remove(i + 1);
-                i--; // 重新检查当前位置
+    private void addFree(int block) {
+        long size = table.size[block];
+        if (indexed) {
+            freeIndex.add(block);
+        }
+        stats.add(size);
+        if (!largestStale && size > stats.getLargestFreeSize()) {
+            stats.setLargestFreeSize(size);
+        }
+    }
+    
+    /**
+     * 空闲块移出索引和统计（修改空闲块的地址或大小之前调用）
+     */
+    private void removeFree(int block) {
+        long size = table.size[block];
+        if (indexed) {
+            freeIndex.remove(block);
+        }
+        stats.remove(size);
+        if (size == stats.getLargestFreeSize()) {
+            largestStale = true;
+        }
+    }
+    
+    /**
+     * 每次修改结束时，若最大空闲块被移除过则重新查找：索引模式下为 O(log n)，线性扫描模式下遍历所有块
+     */
+    private void refreshLargest() {
+        if (!largestStale) {
+            return;
+        }
+        long largestFreeSize = 0;
+        if (indexed) {
+            int largest = freeIndex.largest();
+            largestFreeSize = largest == NONE ? 0 : table.size[largest];
+        } else {
+            for (int block = head; block != NONE; block = table.next[block]) {
+                if (table.owner[block] == FREE) {
+                    largestFreeSize = Math.max(largestFreeSize, table.size[block]);
+                }
             }
         }
+        stats.setLargestFreeSize(largestFreeSize);
+        largestStale = false;
+    }
+    
+    /**
+     * 地址最低的空闲块，没有空闲块时返回 NONE
+     */
+    private int lowestFreeBlock() {
+        return indexed ? freeIndex.firstFit(1) : findFreeBlockFrom(0, 1);
+    }
+    
+    /**
+     * 把 block 插入到 position 之前
+     */
+    private void insertBefore(int position, int block) {
+        int prev = table.prev[position];
+        table.next[block] = position;
+        table.prev[block] = prev;
+        if (prev != NONE) {
+            table.next[prev] = block;
+        } else {
+            head = block;
+        }
+        table.prev[position] = block;
+    }
+    
+    /**
+     * 把 block 插入到 position 之后
+     */
+    private void insertAfter(int position, int block) {
+        int next = table.next[position];
+        table.prev[block] = position;
+        table.next[block] = next;
+        if (next != NONE) {
+            table.prev[next] = block;
+        }
+        table.next[position] = block;
+    }
+    
+    /**
+     * 从链表中摘除 block（block 不会是头结点：被合并的总是后一块）
+     */
+    private void unlink(int block) {
+        int prev = table.prev[block];
+        int next = table.next[block];
+        table.next[prev] = next;
+        if (next != NONE) {
+            table.prev[next] = prev;
+        }
+        table.prev[block] = NONE;
+        table.next[block] = NONE;
+    }
+    
+    public MemoryCompactor getCompactor() {
+        return compactor;
+    }
+    
+    public boolean isCompactOnFailure() {
+        return compactOnFailure;
+    }
+    
+    public void setCompactOnFailure(boolean compactOnFailure) {
+        this.compactOnFailure = compactOnFailure;
+    }
+    
+    /**
+     * 空闲内存总量(字节)
+     */
+    public long getFreeMemory() {
+        return stats.getFreeMemory();
+    }
+    
+    /**
+     * 空闲空间统计（随分配、释放和紧凑实时更新，查询为 O(1)）
+     */
+    public FragmentationStats getStats() {
+        return stats;
+    }
+    
+    /**
+     * 内存块个数
+     */
+    public int getBlockCount() {
+        return table.count();
     }
     
     /**
-     * 获取当前内存块列表
+     * 按地址顺序把块句柄写入 handles（容量不够时换成更大的数组），返回写入的数组，前 getBlockCount() 项有效
+     * 与 getBlockTable 一起供界面的表格模型按行直接读取块表
+     */
+    int[] blockHandles(int[] handles) {
+        if (handles.length < table.count()) {
+            handles = new int[Math.max(table.count(), handles.length * 2)];
+        }
+        int row = 0;
+        for (int block = head; block != NONE; block = table.next[block]) {
+            handles[row++] = block;
+        }
+        return handles;
+    }
+    
+    BlockTable getBlockTable() {
+        return table;
+    }
+    
+    /**
+     * 按地址顺序遍历内存块的游标
+     */
+    public BlockCursor cursor() {
+        return new BlockCursor();
+    }
+    
+    /**
+     * 按地址顺序访问每个内存块，不创建对象；访问期间不能分配、释放或紧凑
+     */
+    public void forEachBlock(BlockVisitor visitor) {
+        for (int block = head; block != NONE; block = table.next[block]) {
+            visitor.visit(table.start[block], table.size[block], table.owner[block]);
+        }
+    }
+    
+    /**
+     * 获取当前内存块列表（快照，每次调用都会为每个块创建对象，频繁遍历请使用 cursor 或 forEachBlock）
      */
     public List<MemoryBlock> getMemoryBlocks() {
-        return new ArrayList<>(memoryBlocks);
+        return snapshot(true, true);
     }
     
     /**
-     * 获取空闲块列表
+     * 获取空闲块列表（快照）
      */
     public List<MemoryBlock> getFreeBlocks() {
-        List<MemoryBlock> freeBlocks = new ArrayList<>();
-        for (MemoryBlock block : memoryBlocks) {
-            if (!block.isAllocated()) {
-                freeBlocks.add(block);
-            }
-        }
-        return freeBlocks;
+        return snapshot(true, false);
     }
     
     /**
-     * 获取已分配块列表
+     * 获取已分配块列表（快照）
      */
     public List<MemoryBlock> getAllocatedBlocks() {
-        List<MemoryBlock> allocatedBlocks = new ArrayList<>();
-        for (MemoryBlock block : memoryBlocks) {
-            if (block.isAllocated()) {
-                allocatedBlocks.add(block);
+        return snapshot(false, true);
+    }
+    
+    private List<MemoryBlock> snapshot(boolean free, boolean allocated) {
+        List<MemoryBlock> blocks = new ArrayList<>();
+        for (int block = head; block != NONE; block = table.next[block]) {
+            int owner = table.owner[block];
+            if (owner == FREE ? free : allocated) {
+                blocks.add(new MemoryBlock(table.start[block], table.size[block], owner != FREE, getProcessName(owner)));
             }
         }
-        return allocatedBlocks;
+        return blocks;
+    }
+    
+    /**
+     * 最大空闲块的大小(字节)，O(1)
+     */
+    public long getLargestFreeSize() {
+        return stats.getLargestFreeSize();
     }
     
     /**
-     * 计算内存碎片
+     * 计算内存碎片：1 - 最大空闲块 / 空闲总量，O(1)
      */
     public double getFragmentation() {
-        int totalFreeSize = 0;
-        int largestFreeSize = 0;
-        
-        for (MemoryBlock block : memoryBlocks) {
-            if (!block.isAllocated()) {
-                totalFreeSize += block.getSize();
-                largestFreeSize = Math.max(largestFreeSize, block.getSize());
-            }
-        }
-        
-        if (totalFreeSize == 0) {
-            return 0.0;
-        }
-        
-        return 1.0 - (double)largestFreeSize / totalFreeSize;
+        return stats.getFragmentation();
     }
 } 
\ No newline at end of file
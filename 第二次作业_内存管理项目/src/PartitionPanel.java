@@ -1,5 +1,5 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -10,17 +10,25 @@ import java.util.List;
  */
 public class PartitionPanel extends JPanel {
     private PartitionManager manager;
+    private BuddyAllocator buddyAllocator; // 伙伴系统，与动态分区各自维护一份 640K 内存
+    private SlabAllocator slabAllocator; // 建立在动态分区之上的 slab 层，与首次/最佳适应共用同一份内存
     private JTable memoryTable;
-    private DefaultTableModel tableModel;
+    private BlockTableModel tableModel;
     private JTextArea logArea;
     private JTextField processNameField;
     private JTextField sizeField;
     private JComboBox<String> algorithmComboBox;
     private JTextField deallocateField;
     private JLabel fragmentationLabel;
+    private JLabel internalFragmentationLabel;
+    private JLabel slabLabel;
+    private JLabel compactionLabel;
+    private Timer compactionTimer; // 增量紧凑：每次触发移动一个块，界面逐步显示紧凑过程
     
     public PartitionPanel() {
         manager = new PartitionManager();
+        buddyAllocator = new BuddyAllocator();
+        slabAllocator = new SlabAllocator(manager);
         initializeComponents();
         updateDisplay();
     }
@@ -76,7 +84,8 @@ public class PartitionPanel extends JPanel {
         panel.add(new JLabel("算法:"), gbc);
         
         gbc.gridx = 5;
-        algorithmComboBox = new JComboBox<>(new String[]{"首次适应", "最佳适应"});
+        algorithmComboBox = new JComboBox<>(new String[]{"首次适应", "循环首次适应", "最佳适应", "最坏适应", "Slab分配", "伙伴系统"});
+        algorithmComboBox.addActionListener(e -> updateDisplay()); // 伙伴系统与动态分区的内存状态分别显示
         panel.add(algorithmComboBox, gbc);
         
         gbc.gridx = 6;
@@ -100,13 +109,33 @@ public class PartitionPanel extends JPanel {
         gbc.gridx = 3;
         JButton resetButton = new JButton("重置");
         resetButton.addActionListener(e -> {
+            stopIncrementalCompaction();
+            slabAllocator.reset();
             manager.reset();
+            manager.getCompactor().resetStatistics();
+            buddyAllocator.reset();
             updateDisplay();
             logArea.append("系统已重置\n");
             logArea.setCaretPosition(logArea.getDocument().getLength());
         });
         panel.add(resetButton, gbc);
         
+        gbc.gridx = 4;
+        JButton compactButton = new JButton("紧凑内存");
+        compactButton.addActionListener(e -> compactFully());
+        panel.add(compactButton, gbc);
+        
+        gbc.gridx = 5;
+        JButton incrementalButton = new JButton("增量紧凑");
+        incrementalButton.addActionListener(e -> startIncrementalCompaction());
+        panel.add(incrementalButton, gbc);
+        
+        gbc.gridx = 6;
+        JCheckBox compactOnFailureBox = new JCheckBox("分配失败时紧凑", true);
+        manager.setCompactOnFailure(true);
+        compactOnFailureBox.addActionListener(e -> manager.setCompactOnFailure(compactOnFailureBox.isSelected()));
+        panel.add(compactOnFailureBox, gbc);
+        
         return panel;
     }
     
@@ -114,13 +143,7 @@ public class PartitionPanel extends JPanel {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder("内存分区状态"));
         
-        String[] columnNames = {"起始地址", "结束地址", "大小(K)", "状态", "进程名"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new BlockTableModel();
         
         memoryTable = new JTable(tableModel);
         memoryTable.getTableHeader().setReorderingAllowed(false);
@@ -161,28 +184,89 @@ public class PartitionPanel extends JPanel {
         fragmentationLabel = new JLabel("内存碎片率: 0.00%");
         panel.add(fragmentationLabel);
         
+        internalFragmentationLabel = new JLabel("内部碎片率: 0.00%");
+        panel.add(internalFragmentationLabel);
+        
+        slabLabel = new JLabel("Slab: 0个，小对象0个");
+        panel.add(slabLabel);
+        
+        compactionLabel = new JLabel("紧凑: -");
+        panel.add(compactionLabel);
+        
         return panel;
     }
     
     private void updateDisplay() {
-        // 更新表格
-        tableModel.setRowCount(0);
-        List<MemoryBlock> blocks = manager.getMemoryBlocks();
-        
-        for (MemoryBlock block : blocks) {
-            Object[] row = {
-                block.getStartAddress() + "K",
-                block.getEndAddress() + "K",
-                block.getSize() + "K",
-                block.isAllocated() ? "已分配" : "空闲",
-                block.isAllocated() ? block.getProcessName() : "-"
-            };
-            tableModel.addRow(row);
-        }
+        // 更新表格：表格只重绘可见的行，单元格按需从块表读取
+        tableModel.refresh();
+        boolean buddy = isBuddySelected();
         
-        // 更新碎片率
-        double fragmentation = manager.getFragmentation();
+        // 更新碎片率（界面按 K 输入请求大小，正好是默认的 1K 分配粒度，动态分区的块大小等于请求大小，内部碎片只来自 slab）
+        double fragmentation = buddy ? buddyAllocator.getFragmentation() : slabAllocator.getFragmentation();
+        double internalFragmentation = buddy
+            ? buddyAllocator.getInternalFragmentation()
+            : slabAllocator.getInternalFragmentation();
         fragmentationLabel.setText(String.format("内存碎片率: %.2f%%", fragmentation * 100));
+        internalFragmentationLabel.setText(String.format("内部碎片率: %.2f%%", internalFragmentation * 100));
+        slabLabel.setText(String.format("Slab: %d个，小对象%d个",
+            slabAllocator.getSlabCount(), slabAllocator.getObjectCount()));
+        compactionLabel.setText("紧凑: " + manager.getCompactor());
+    }
+    
+    /**
+     * 一次性紧凑动态分区内存（伙伴系统的块按伙伴关系定位，不能移动）
+     */
+    private void compactFully() {
+        if (rejectBuddyCompaction()) {
+            return;
+        }
+        stopIncrementalCompaction();
+        MemoryCompactor compactor = manager.getCompactor();
+        long moved = compactor.compactFully();
+        logArea.append(String.format("紧凑内存：移动%s，暂停%.3fms\n",
+            MemoryBlock.formatSize(moved), compactor.getLastPauseNanos() / 1e6));
+        updateDisplay();
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+    }
+    
+    /**
+     * 开始增量紧凑：每 300ms 移动一个块，期间可以照常分配和释放
+     */
+    private void startIncrementalCompaction() {
+        if (compactionTimer != null || rejectBuddyCompaction()) {
+            return;
+        }
+        logArea.append("开始增量紧凑\n");
+        compactionTimer = new Timer(300, e -> {
+            boolean done = manager.getCompactor().compactIncrementally(0);
+            if (done) {
+                stopIncrementalCompaction();
+                logArea.append("增量紧凑完成：" + manager.getCompactor() + "\n");
+                logArea.setCaretPosition(logArea.getDocument().getLength());
+            }
+            updateDisplay();
+        });
+        compactionTimer.start();
+    }
+    
+    private boolean rejectBuddyCompaction() {
+        if (isBuddySelected()) {
+            JOptionPane.showMessageDialog(this, "伙伴系统的块地址由伙伴关系决定，不能紧凑",
+                "提示", JOptionPane.INFORMATION_MESSAGE);
+            return true;
+        }
+        return false;
+    }
+    
+    private void stopIncrementalCompaction() {
+        if (compactionTimer != null) {
+            compactionTimer.stop();
+            compactionTimer = null;
+        }
+    }
+    
+    private boolean isBuddySelected() {
+        return "伙伴系统".equals(algorithmComboBox.getSelectedItem());
     }
     
     private class AllocateAction implements ActionListener {
@@ -205,16 +289,44 @@ public class PartitionPanel extends JPanel {
                     return;
                 }
                 
+                if (SlabAllocator.isReservedName(processName)) {
+                    JOptionPane.showMessageDialog(PartitionPanel.this,
+                        "进程名不能以#slab开头", "输入错误", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                if (isBuddySelected() ? buddyAllocator.containsProcess(processName)
+                        : slabAllocator.containsProcess(processName)) {
+                    JOptionPane.showMessageDialog(PartitionPanel.this,
+                        "进程" + processName + "已分配内存", "输入错误", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
                 String algorithm = (String) algorithmComboBox.getSelectedItem();
                 boolean success;
+                int pausesBefore = manager.getCompactor().getPauses();
+                long bytes = size * MemoryBlock.KB; // 分配器以字节为单位
                 
                 if ("首次适应".equals(algorithm)) {
-                    success = manager.allocateFirstFit(processName, size);
+                    success = manager.allocateFirstFit(processName, bytes);
+                } else if ("循环首次适应".equals(algorithm)) {
+                    success = manager.allocateNextFit(processName, bytes);
+                } else if ("最坏适应".equals(algorithm)) {
+                    success = manager.allocateWorstFit(processName, bytes);
+                } else if ("Slab分配".equals(algorithm)) {
+                    success = slabAllocator.allocate(processName, bytes);
+                } else if (isBuddySelected()) {
+                    success = buddyAllocator.allocate(processName, bytes);
                 } else {
-                    success = manager.allocateBestFit(processName, size);
+                    success = manager.allocateBestFit(processName, bytes);
                 }
                 
                 if (success) {
+                    MemoryCompactor compactor = manager.getCompactor();
+                    if (compactor.getPauses() != pausesBefore) {
+                        logArea.append(String.format("没有足够大的空闲分区，已紧凑内存，暂停%.3fms\n",
+                            compactor.getLastPauseNanos() / 1e6));
+                    }
                     logArea.append(String.format("成功为进程%s分配%dK内存（%s算法）\n", 
                         processName, size, algorithm));
                     processNameField.setText("");
@@ -245,7 +357,9 @@ public class PartitionPanel extends JPanel {
                 return;
             }
             
-            boolean success = manager.deallocate(processName);
+            boolean success = isBuddySelected()
+                ? buddyAllocator.deallocate(processName)
+                : slabAllocator.deallocate(processName); // 小对象还给 slab，其余由 PartitionManager 释放
             
             if (success) {
                 logArea.append(String.format("成功释放进程%s的内存\n", processName));
@@ -258,4 +372,88 @@ public class PartitionPanel extends JPanel {
             logArea.setCaretPosition(logArea.getDocument().getLength());
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * 内存分区表格模型：动态分区按地址顺序记下块句柄，单元格直接从块表的基本类型数组读取，刷新时不为每行创建对象；
+     * 伙伴系统没有块表，显示它的块列表快照
+     * 刷新时行数减少的部分发出删除事件、增加的部分发出插入事件，其余行发出更新事件
+     */
+    private class BlockTableModel extends AbstractTableModel {
+        private final String[] columnNames = {"起始地址", "结束地址", "大小(K)", "状态", "进程名"};
+        private int[] handles = new int[0]; // 行 -> 块句柄（动态分区）
+        private List<MemoryBlock> buddyBlocks; // 伙伴系统的块，动态分区时为null
+        private int rowCount;
+        
+        void refresh() {
+            int oldCount = rowCount;
+            if (isBuddySelected()) {
+                buddyBlocks = buddyAllocator.getMemoryBlocks();
+                rowCount = buddyBlocks.size();
+            } else {
+                buddyBlocks = null;
+                handles = manager.blockHandles(handles);
+                rowCount = manager.getBlockCount();
+            }
+            if (rowCount < oldCount) {
+                fireTableRowsDeleted(rowCount, oldCount - 1);
+            }
+            if (Math.min(rowCount, oldCount) > 0) {
+                fireTableRowsUpdated(0, Math.min(rowCount, oldCount) - 1);
+            }
+            if (rowCount > oldCount) {
+                fireTableRowsInserted(oldCount, rowCount - 1);
+            }
+        }
+        
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+        
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+        
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+        
+        @Override
+        public Object getValueAt(int row, int column) {
+            long startAddress;
+            long size;
+            int processId = BlockTable.FREE;
+            MemoryBlock buddyBlock = null;
+            if (buddyBlocks != null) {
+                buddyBlock = buddyBlocks.get(row);
+                startAddress = buddyBlock.getStartAddress();
+                size = buddyBlock.getSize();
+            } else {
+                BlockTable table = manager.getBlockTable();
+                int block = handles[row];
+                startAddress = table.start[block];
+                size = table.size[block];
+                processId = table.owner[block];
+            }
+            boolean allocated = buddyBlock != null ? buddyBlock.isAllocated() : processId != BlockTable.FREE;
+            switch (column) {
+                case 0: return startAddress / MemoryBlock.KB + "K";
+                case 1: return (startAddress + size) / MemoryBlock.KB - 1 + "K";
+                case 2: return size / MemoryBlock.KB + "K";
+                case 3: return allocated ? "已分配" : "空闲";
+                default:
+                    if (!allocated) {
+                        return "-";
+                    }
+                    if (buddyBlock != null) {
+                        return String.format("%s（请求%s）", buddyBlock.getProcessName(),
+                            MemoryBlock.formatSize(buddyAllocator.getRequestedSize(buddyBlock.getProcessName())));
+                    }
+                    String processName = manager.getProcessName(processId);
+                    return slabAllocator.isSlab(processName) ? slabAllocator.describeSlab(processName) : processName;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+/**
+ * 页面置换算法
+ * PageReplacementManager 管理空闲块，只在内存已满时调用 evict 选择被置换的块；
+ * 算法通过 pageLoaded、pageHit 等回调维护自己的数据结构，这些数据结构按内存块号（或页面号）索引
+ * time 为访问序号：reset 后的第一次访问为 0，依次递增
+ */
+public interface ReplacementPolicy {
+    /**
+     * 支持的算法名称
+     */
+    String[] NAMES = {"FIFO", "LRU", "OPT", "Clock", "改进型Clock", "LFU", "ARC", "2Q"};
+    
+    /**
+     * 按名称创建置换算法
+     */
+    static ReplacementPolicy create(String name) {
+        switch (name) {
+            case "FIFO": return new FifoPolicy();
+            case "LRU": return new LruPolicy();
+            case "OPT": return new OptPolicy();
+            case "Clock": return new ClockPolicy();
+            case "改进型Clock": return new EnhancedClockPolicy();
+            case "LFU": return new LfuPolicy();
+            case "ARC": return new ArcPolicy();
+            case "2Q": return new TwoQueuePolicy();
+            default: throw new IllegalArgumentException("未知的置换算法: " + name);
+        }
+    }
+    
+    String getName();
+    
+    /**
+     * 开始新的模拟：frames 个内存块，pages 个页面，内存全部空闲
+     */
+    void reset(int frames, int pages);
+    
+    /**
+     * 预先给出之后访问的页面序列，访问序号为 t 的访问是 pageSequence[t]；只有 OPT 使用
+     */
+    default void prepare(int[] pageSequence) {
+    }
+    
+    /**
+     * 是否按装入顺序置换（FIFO、2Q 的 A1in）；切换算法时按装入时间而不是最后访问时间的顺序接管已装入的页面
+     */
+    default boolean ordersByLoadTime() {
+        return false;
+    }
+    
+    /**
+     * 页面 page 装入内存块 frame（空闲块或刚被 evict 选中的块）
+     */
+    void pageLoaded(int frame, int page, long time);
+    
+    /**
+     * 访问命中内存块 frame 中的页面 page
+     */
+    void pageHit(int frame, int page, long time);
+    
+    /**
+     * 内存块 frame 中的页面被修改（写访问）；只有改进型 Clock 使用
+     */
+    default void pageModified(int frame) {
+    }
+    
+    /**
+     * 内存已满、要装入页面 page 时选择一个块置换出去，并把它从算法的数据结构中移出，返回块号
+     */
+    int evict(int page, long time);
+}
@@ -0,0 +1,187 @@
+import java.util.*;
+
+/**
+ * 段页式存储管理模拟（无界面）
+ * 生成一组进程（代码段、数据段、堆、栈四个段，大小随机），按时间片轮转交替产生访问，
+ * 进程运行一定数量的时间片后结束，由一个新进程（段大小重新随机）取代，页表和页框随之在物理内存中分配和归还；
+ * 代码段按原请求调页实验的方式访问（50%顺序，25%跳到前面，25%跳到后面），数据段和堆八成访问集中在两成的热点区域，
+ * 栈在栈顶附近访问；同一访问序列在各配置上重放，比较缺页率、TLB 命中率、地址变换的访存次数和有效访问时间
+ * 用法: java SegmentedPagingBenchmark [选项]
+ *   -processes 个数     同时运行的进程数（默认 8）
+ *   -lifetime 时间片数  进程运行多少个时间片后结束，0 表示不结束（默认 20）
+ *   -memory 大小        物理内存大小（默认 4M）
+ *   -page 大小          页大小（默认 4K）
+ *   -quota 页框数       每个进程的页框配额（默认 64）
+ *   -tlb 表项数         TLB 表项数（默认 16，另外总是测试没有 TLB 的情况）
+ *   -accesses 次数      访问次数（默认 200000）
+ *   -quantum 次数       时间片内的访问次数（默认 100）
+ *   -seed 种子          随机种子（默认 42）
+ */
+public class SegmentedPagingBenchmark {
+    private static final String[] SEGMENT_NAMES = {"代码", "数据", "堆", "栈"};
+    private static final double MEMORY_NANOS = 100; // 一次内存访问的时间
+    private static final double PAGE_FAULT_NANOS = 1e6; // 一次缺页处理的时间（1ms）
+    
+    private final List<long[]> segmentLengths = new ArrayList<>(); // 进程编号 -> 各段长度
+    private final List<Integer> processSlots = new ArrayList<>(); // 进程编号 -> 所在的轮转位置
+    private final int[] accessProcess; // 访问序列：进程编号、段号、段内偏移
+    private final int[] accessSegment;
+    private final long[] accessOffset;
+    
+    /**
+     * 生成进程和访问序列
+     * @param lifetime 进程运行的时间片数，0 表示不结束
+     */
+    public SegmentedPagingBenchmark(int processCount, int lifetime, int accessCount, int quantum, long seed) {
+        Random random = new Random(seed);
+        int[] running = new int[processCount]; // 每个轮转位置上正在运行的进程
+        int[] quantaRun = new int[processCount];
+        long[] programCounters = new long[processCount];
+        long[] stackPointers = new long[processCount];
+        for (int p = 0; p < processCount; p++) {
+            running[p] = newProcess(random, p);
+            stackPointers[p] = segmentLengths.get(running[p])[3] - 4;
+        }
+        accessProcess = new int[accessCount];
+        accessSegment = new int[accessCount];
+        accessOffset = new long[accessCount];
+        for (int i = 0; i < accessCount; i++) {
+            int p = (i / quantum) % processCount; // 时间片轮转
+            if (i % quantum == 0 && i >= quantum * processCount && lifetime > 0 && ++quantaRun[p] % lifetime == 0) {
+                // 进程结束，由新进程取代
+                running[p] = newProcess(random, p);
+                programCounters[p] = 0;
+                stackPointers[p] = segmentLengths.get(running[p])[3] - 4;
+            }
+            long[] lengths = segmentLengths.get(running[p]);
+            accessProcess[i] = running[p];
+            double kind = random.nextDouble();
+            if (kind < 0.5) {
+                accessSegment[i] = 0;
+                accessOffset[i] = programCounters[p] = nextInstruction(random, programCounters[p], lengths[0]);
+            } else if (kind < 0.8) {
+                int segment = random.nextBoolean() ? 1 : 2;
+                accessSegment[i] = segment;
+                long length = lengths[segment];
+                // 八成访问落在前两成的热点区域
+                long hot = Math.max(4, length / 5);
+                accessOffset[i] = random.nextDouble() < 0.8
+                    ? (long) (random.nextDouble() * hot)
+                    : hot + (long) (random.nextDouble() * (length - hot));
+            } else {
+                // 栈顶在栈的高地址一端附近随机游走
+                long sp = stackPointers[p] + (random.nextInt(65) - 32) * 4L;
+                sp = Math.max(lengths[3] - 8 * MemoryBlock.KB, Math.min(lengths[3] - 4, sp));
+                stackPointers[p] = sp;
+                accessSegment[i] = 3;
+                accessOffset[i] = sp;
+            }
+        }
+    }
+    
+    /**
+     * 随机生成一个进程的各段长度，返回进程编号
+     */
+    private int newProcess(Random random, int slot) {
+        segmentLengths.add(new long[] {
+            (16 + random.nextInt(113)) * MemoryBlock.KB,  // 代码 16K-128K
+            (32 + random.nextInt(481)) * MemoryBlock.KB,  // 数据 32K-512K
+            (64 + random.nextInt(961)) * MemoryBlock.KB,  // 堆 64K-1M
+            (16 + random.nextInt(49)) * MemoryBlock.KB    // 栈 16K-64K
+        });
+        processSlots.add(slot);
+        return segmentLengths.size() - 1;
+    }
+    
+    /**
+     * 代码段的下一条指令地址（指令 4 字节）：50%顺序执行，25%跳到前面，25%跳到后面
+     */
+    private static long nextInstruction(Random random, long pc, long length) {
+        long instructions = length / 4;
+        long current = pc / 4;
+        double prob = random.nextDouble();
+        long next;
+        if (prob < 0.5) {
+            next = (current + 1) % instructions;
+        } else if (prob < 0.75) {
+            next = current == 0 ? 0 : (long) (random.nextDouble() * current);
+        } else {
+            next = current + 1 >= instructions ? 0 : current + 1 + (long) (random.nextDouble() * (instructions - current - 1));
+        }
+        return next * 4;
+    }
+    
+    /**
+     * 在一种配置上重放访问序列
+     */
+    private String run(long memorySize, long pageSize, int tlbEntries, int quota, String algorithm) {
+        SegmentedPagingSimulator simulator = new SegmentedPagingSimulator(memorySize, pageSize, tlbEntries);
+        simulator.setAlgorithm(algorithm);
+        String[] names = new String[segmentLengths.size()];
+        String[] running = new String[segmentLengths.size()]; // 轮转位置 -> 正在运行的进程名
+        boolean[] started = new boolean[segmentLengths.size()];
+        int created = 0;
+        int rejected = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < accessProcess.length; i++) {
+            int process = accessProcess[i];
+            if (!started[process]) {
+                // 新进程开始运行，取代同一位置上的旧进程
+                started[process] = true;
+                int slot = processSlots.get(process);
+                if (running[slot] != null) {
+                    simulator.destroyProcess(running[slot]);
+                }
+                running[slot] = null;
+                if (simulator.createProcess("P" + process, segmentLengths.get(process), quota)) {
+                    names[process] = running[slot] = "P" + process;
+                    created++;
+                } else {
+                    rejected++; // 段表和页表放不下，进程没有创建
+                }
+            }
+            if (names[process] != null) {
+                simulator.access(names[process], accessSegment[i], accessOffset[i]);
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        return String.format("%-6s %6d %4d/%-4d %9.2f%% %9.2f%% %12.2f %12.1f %10d %10s %10s %9.2f%% %12.0f",
+            algorithm, tlbEntries, created, rejected, 100 * simulator.getPageFaultRate(), 100 * simulator.getTlbHitRate(),
+            (double) simulator.getTranslationReferences() / Math.max(1, simulator.getAccesses()),
+            simulator.getEffectiveAccessTime(MEMORY_NANOS, PAGE_FAULT_NANOS), simulator.getEvictions(),
+            MemoryBlock.formatSize(simulator.getPageTableMemory()), MemoryBlock.formatSize(simulator.getFrameMemory()),
+            100 * simulator.getMemory().getFragmentation(), (double) simulator.getAccesses() / elapsed * 1e9);
+    }
+    
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("-")) {
+                throw new IllegalArgumentException("无法识别的参数: " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        int processCount = Integer.parseInt(options.getOrDefault("processes", "8"));
+        int lifetime = Integer.parseInt(options.getOrDefault("lifetime", "20"));
+        long memorySize = AllocationTrace.parseSize(options.getOrDefault("memory", "4M"));
+        long pageSize = AllocationTrace.parseSize(options.getOrDefault("page", "4K"));
+        int quota = Integer.parseInt(options.getOrDefault("quota", "64"));
+        int tlbEntries = Integer.parseInt(options.getOrDefault("tlb", "16"));
+        int accessCount = Integer.parseInt(options.getOrDefault("accesses", "200000"));
+        int quantum = Integer.parseInt(options.getOrDefault("quantum", "100"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        
+        SegmentedPagingBenchmark benchmark = new SegmentedPagingBenchmark(processCount, lifetime, accessCount, quantum, seed);
+        System.out.println(String.format("段页式存储管理模拟: %d 个进程同时运行（%s四段）, 共 %d 个进程, %d 次访问, 时间片 %d 次, "
+            + "物理内存 %s, 页大小 %s, 页框配额 %d", processCount, String.join("/", SEGMENT_NAMES), benchmark.segmentLengths.size(),
+            accessCount, quantum, MemoryBlock.formatSize(memorySize), MemoryBlock.formatSize(pageSize), quota));
+        System.out.println(String.format("有效访问时间按内存访问 %.0fns、缺页处理 %.0fms 计算", MEMORY_NANOS, PAGE_FAULT_NANOS / 1e6));
+        System.out.println(String.format("%-6s %6s %8s %10s %10s %12s %12s %10s %10s %10s %10s %12s", "算法", "TLB", "创建/拒绝",
+            "缺页率", "TLB命中率", "变换访存/次", "有效访问(ns)", "置换次数", "段表+页表", "页框", "外部碎片", "访问/秒"));
+        for (String algorithm : new String[] {"FIFO", "LRU"}) {
+            for (int entries : tlbEntries == 0 ? new int[] {0} : new int[] {0, tlbEntries}) {
+                System.out.println(benchmark.run(memorySize, pageSize, entries, quota, algorithm));
+            }
+        }
+    }
+}
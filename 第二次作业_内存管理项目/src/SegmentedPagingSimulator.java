@@ -0,0 +1,460 @@
+import java.util.*;
+
+/**
+ * 段页式存储管理模拟：进程的地址空间分为若干段，每段有自己的页表，逻辑地址为 (段号, 段内偏移)
+ * 物理内存由一个 PartitionManager 管理，分配粒度和对齐都是页大小：
+ * 每个进程的段表和每段的页表作为可变大小的分区分配，页框作为一页大小的分区按需分配，两者争用同一份内存
+ * 地址变换先查 TLB（全相联，LRU 替换），未命中时访问段表和页表各一次；页不在内存时缺页：
+ * 进程的页框数未达到配额且还能分配页框时装入新页框，否则在进程自己的页中按 FIFO 或 LRU 选出被置换页（局部置换），
+ * 驻留页框按装入顺序（FIFO）或访问顺序（LRU）放在按页框下标索引的 IndexList 中，置换为 O(1)；
+ * 进程一个页框都没有且内存已满时，从驻留页最多的进程中置换一页，把页框转给它
+ * 页框地址在分配时记录，模拟器不紧凑物理内存（移动页框需要同时修改页表和 TLB）
+ */
+public class SegmentedPagingSimulator {
+    public static final int ENTRY_SIZE = 8; // 段表项和页表项的大小(字节)
+    public static final int MAX_SEGMENTS = 1 << 16; // TLB 键中段号占 16 位
+    private static final int NOT_RESIDENT = -1;
+    
+    /**
+     * 一个段：长度和页表（每页所在的页框编号）
+     */
+    private static class Segment {
+        final long length;
+        final int[] frames; // 页 -> 页框编号（进程页框数组中的下标），不在内存为 NOT_RESIDENT
+        
+        Segment(long length, long pageSize) {
+            this.length = length;
+            int pages = (int) ((length + pageSize - 1) / pageSize);
+            this.frames = new int[pages];
+            Arrays.fill(frames, NOT_RESIDENT);
+        }
+    }
+    
+    /**
+     * 一个进程：段、页框配额和已分配的页框（页框在进程结束前不归还，置换时直接复用）
+     * 页框按下标 [0, frameCount) 存放在并行数组中，最多 frameQuota 个
+     */
+    private static class Process {
+        final int id;
+        final String name;
+        final Segment[] segments;
+        final int frameQuota;
+        final String[] frameNames; // 页框在 PartitionManager 中的分区名
+        final long[] frameAddresses;
+        final int[] frameSegments; // 页框 -> 所装页的段号
+        final int[] framePages;    // 页框 -> 所装页的页号
+        final IndexList resident;  // 装有页的页框，表头为下一个被置换的页框
+        int frameCount;
+        int residentPages;
+        long accesses;
+        long pageFaults;
+        
+        Process(int id, String name, Segment[] segments, int frameQuota) {
+            this.id = id;
+            this.name = name;
+            this.segments = segments;
+            this.frameQuota = frameQuota;
+            this.frameNames = new String[frameQuota];
+            this.frameAddresses = new long[frameQuota];
+            this.frameSegments = new int[frameQuota];
+            this.framePages = new int[frameQuota];
+            this.resident = new IndexList(frameQuota);
+        }
+    }
+    
+    private final PartitionManager memory;
+    private final long pageSize;
+    private final Map<String, Process> processes = new LinkedHashMap<>();
+    private int nextProcessId;
+    private int nextFrameId;
+    private String algorithm = "LRU";
+    private long currentTime;
+    
+    // TLB：全相联，键为 (进程, 段, 页)，值为物理页的起始地址
+    private final long[] tlbKeys;
+    private final long[] tlbAddresses;
+    private final long[] tlbLastUse;
+    
+    // 统计
+    private long accesses;
+    private long tlbHits;
+    private long pageFaults;
+    private long evictions;
+    private long translationReferences; // 地址变换中访问内存的次数（段表和页表）
+    private long segmentViolations; // 越界访问
+    
+    /**
+     * @param physicalMemory 物理内存大小(字节)，必须是页大小的倍数
+     * @param pageSize 页大小(字节)，2 的幂
+     * @param tlbEntries TLB 表项数，0 表示没有 TLB
+     */
+    public SegmentedPagingSimulator(long physicalMemory, long pageSize, int tlbEntries) {
+        this.memory = new PartitionManager(physicalMemory, pageSize, pageSize, true);
+        this.pageSize = pageSize;
+        this.tlbKeys = new long[tlbEntries];
+        this.tlbAddresses = new long[tlbEntries];
+        this.tlbLastUse = new long[tlbEntries];
+        Arrays.fill(tlbKeys, -1);
+    }
+    
+    /**
+     * 置换算法："FIFO" 或 "LRU"
+     */
+    public void setAlgorithm(String algorithm) {
+        if (!"FIFO".equals(algorithm) && !"LRU".equals(algorithm)) {
+            throw new IllegalArgumentException("未知的置换算法: " + algorithm);
+        }
+        this.algorithm = algorithm;
+    }
+    
+    public String getAlgorithm() {
+        return algorithm;
+    }
+    
+    /**
+     * 创建进程：为段表和每段的页表分配内存，页在第一次访问时才装入
+     * @param segmentLengths 各段的长度(字节)
+     * @param frameQuota 进程最多占用的页框数
+     * @return 进程名已存在或内存不足以放下段表和页表时返回false
+     */
+    public boolean createProcess(String name, long[] segmentLengths, int frameQuota) {
+        if (segmentLengths.length > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("段数不能超过 " + MAX_SEGMENTS);
+        }
+        if (processes.containsKey(name) || segmentLengths.length == 0 || frameQuota <= 0) {
+            return false;
+        }
+        Segment[] segments = new Segment[segmentLengths.length];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(segmentLengths[i], pageSize);
+        }
+        if (!memory.allocateFirstFit(segmentTableName(name), (long) segments.length * ENTRY_SIZE)) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            if (!memory.allocateFirstFit(pageTableName(name, i), Math.max(1, segments[i].frames.length) * (long) ENTRY_SIZE)) {
+                for (int j = 0; j < i; j++) {
+                    memory.deallocate(pageTableName(name, j));
+                }
+                memory.deallocate(segmentTableName(name));
+                return false;
+            }
+        }
+        processes.put(name, new Process(nextProcessId++, name, segments, frameQuota));
+        return true;
+    }
+    
+    /**
+     * 结束进程：归还页框、页表和段表，清除它在 TLB 中的表项
+     */
+    public boolean destroyProcess(String name) {
+        Process process = processes.remove(name);
+        if (process == null) {
+            return false;
+        }
+        for (int frame = 0; frame < process.frameCount; frame++) {
+            memory.deallocate(process.frameNames[frame]);
+        }
+        for (int i = 0; i < process.segments.length; i++) {
+            memory.deallocate(pageTableName(name, i));
+        }
+        memory.deallocate(segmentTableName(name));
+        for (int i = 0; i < tlbKeys.length; i++) {
+            if (tlbKeys[i] != -1 && (int) (tlbKeys[i] >>> 48) == process.id) {
+                tlbKeys[i] = -1;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 访问逻辑地址 (段号, 段内偏移)，返回物理地址；越界时返回 -1，内存中一个页框也分不出来时返回 -2
+     */
+    public long access(String processName, int segmentNumber, long offset) {
+        Process process = processes.get(processName);
+        if (process == null) {
+            throw new IllegalArgumentException("进程不存在: " + processName);
+        }
+        currentTime++;
+        accesses++;
+        process.accesses++;
+        if (segmentNumber < 0 || segmentNumber >= process.segments.length
+                || offset < 0 || offset >= process.segments[segmentNumber].length) {
+            segmentViolations++;
+            return -1;
+        }
+        Segment segment = process.segments[segmentNumber];
+        int page = (int) (offset / pageSize);
+        long key = tlbKey(process.id, segmentNumber, page);
+        
+        int entry = tlbLookup(key);
+        if (entry >= 0) {
+            tlbHits++;
+            tlbLastUse[entry] = currentTime;
+            touch(process, segment.frames[page]);
+            return tlbAddresses[entry] + offset % pageSize;
+        }
+        
+        translationReferences += 2; // 查段表和页表
+        if (segment.frames[page] == NOT_RESIDENT && !loadPage(process, segmentNumber, page)) {
+            return -2;
+        }
+        touch(process, segment.frames[page]);
+        long frameAddress = process.frameAddresses[segment.frames[page]];
+        tlbInsert(key, frameAddress);
+        return frameAddress + offset % pageSize;
+    }
+    
+    /**
+     * 访问了页框中的页：LRU 把页框移到表尾，FIFO 不变
+     */
+    private void touch(Process process, int frame) {
+        if ("LRU".equals(algorithm)) {
+            process.resident.moveToLast(frame);
+        }
+    }
+    
+    /**
+     * 缺页处理：取得一个页框并装入页
+     */
+    private boolean loadPage(Process process, int segmentNumber, int page) {
+        pageFaults++;
+        process.pageFaults++;
+        int frame = NOT_RESIDENT;
+        if (process.frameCount < process.frameQuota) {
+            frame = allocateFrame(process);
+        }
+        if (frame == NOT_RESIDENT) {
+            if (process.residentPages > 0) {
+                frame = evict(process);
+            } else {
+                // 进程一个页框都没有：从驻留页最多的进程中置换一页，把页框转给它
+                Process donor = null;
+                for (Process other : processes.values()) {
+                    if (other.residentPages > 0 && (donor == null || other.residentPages > donor.residentPages)) {
+                        donor = other;
+                    }
+                }
+                if (donor == null) {
+                    return false;
+                }
+                int donorFrame = evict(donor);
+                frame = transferFrame(donor, donorFrame, process);
+            }
+        }
+        process.segments[segmentNumber].frames[page] = frame;
+        process.frameSegments[frame] = segmentNumber;
+        process.framePages[frame] = page;
+        process.resident.addLast(frame);
+        process.residentPages++;
+        return true;
+    }
+    
+    /**
+     * 从 PartitionManager 分配一个页框，内存不足时返回 NOT_RESIDENT
+     */
+    private int allocateFrame(Process process) {
+        String frameName = "#frame" + nextFrameId++;
+        if (!memory.allocateFirstFit(frameName, pageSize)) {
+            return NOT_RESIDENT;
+        }
+        int frame = process.frameCount++;
+        process.frameNames[frame] = frameName;
+        process.frameAddresses[frame] = memory.getAddress(frameName);
+        return frame;
+    }
+    
+    /**
+     * 把 donor 的一个空闲页框转给 process（页框的分区名不变）
+     */
+    private int transferFrame(Process donor, int donorFrame, Process process) {
+        int last = --donor.frameCount;
+        String frameName = donor.frameNames[donorFrame];
+        long frameAddress = donor.frameAddresses[donorFrame];
+        // 用最后一个页框填补空位，修正它所装页的页表项和它在置换顺序中的位置
+        if (last != donorFrame) {
+            donor.frameNames[donorFrame] = donor.frameNames[last];
+            donor.frameAddresses[donorFrame] = donor.frameAddresses[last];
+            donor.frameSegments[donorFrame] = donor.frameSegments[last];
+            donor.framePages[donorFrame] = donor.framePages[last];
+            if (donor.resident.contains(last)) {
+                donor.resident.replace(last, donorFrame);
+                donor.segments[donor.frameSegments[donorFrame]].frames[donor.framePages[donorFrame]] = donorFrame;
+            }
+        }
+        donor.frameNames[last] = null;
+        
+        int frame = process.frameCount++;
+        process.frameNames[frame] = frameName;
+        process.frameAddresses[frame] = frameAddress;
+        return frame;
+    }
+    
+    /**
+     * 在进程自己的驻留页中按置换算法选出一页换出，返回空出的页框
+     */
+    private int evict(Process process) {
+        int victimFrame = process.resident.removeFirst();
+        int segmentNumber = process.frameSegments[victimFrame];
+        int page = process.framePages[victimFrame];
+        process.segments[segmentNumber].frames[page] = NOT_RESIDENT;
+        process.residentPages--;
+        evictions++;
+        tlbInvalidate(tlbKey(process.id, segmentNumber, page));
+        return victimFrame;
+    }
+    
+    private static long tlbKey(int processId, int segment, int page) {
+        return ((long) processId << 48) | ((long) segment << 32) | page;
+    }
+    
+    private int tlbLookup(long key) {
+        for (int i = 0; i < tlbKeys.length; i++) {
+            if (tlbKeys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void tlbInsert(long key, long address) {
+        if (tlbKeys.length == 0) {
+            return;
+        }
+        int victim = 0;
+        for (int i = 0; i < tlbKeys.length; i++) {
+            if (tlbKeys[i] == -1) {
+                victim = i;
+                break;
+            }
+            if (tlbLastUse[i] < tlbLastUse[victim]) {
+                victim = i;
+            }
+        }
+        tlbKeys[victim] = key;
+        tlbAddresses[victim] = address;
+        tlbLastUse[victim] = currentTime;
+    }
+    
+    private void tlbInvalidate(long key) {
+        int entry = tlbLookup(key);
+        if (entry >= 0) {
+            tlbKeys[entry] = -1;
+        }
+    }
+    
+    private static String segmentTableName(String processName) {
+        return "#segtable:" + processName;
+    }
+    
+    private static String pageTableName(String processName, int segment) {
+        return "#pagetable:" + processName + ":" + segment;
+    }
+    
+    /**
+     * 清空统计（不改变进程和内存状态）
+     */
+    public void resetStatistics() {
+        accesses = 0;
+        tlbHits = 0;
+        pageFaults = 0;
+        evictions = 0;
+        translationReferences = 0;
+        segmentViolations = 0;
+        for (Process process : processes.values()) {
+            process.accesses = 0;
+            process.pageFaults = 0;
+        }
+    }
+    
+    public PartitionManager getMemory() {
+        return memory;
+    }
+    
+    public long getPageSize() {
+        return pageSize;
+    }
+    
+    public Set<String> getProcessNames() {
+        return Collections.unmodifiableSet(processes.keySet());
+    }
+    
+    public int getResidentPages(String processName) {
+        return processes.get(processName).residentPages;
+    }
+    
+    public long getProcessPageFaults(String processName) {
+        return processes.get(processName).pageFaults;
+    }
+    
+    public long getProcessAccesses(String processName) {
+        return processes.get(processName).accesses;
+    }
+    
+    public long getAccesses() {
+        return accesses;
+    }
+    
+    public long getTlbHits() {
+        return tlbHits;
+    }
+    
+    public long getPageFaults() {
+        return pageFaults;
+    }
+    
+    public long getEvictions() {
+        return evictions;
+    }
+    
+    public long getTranslationReferences() {
+        return translationReferences;
+    }
+    
+    public long getSegmentViolations() {
+        return segmentViolations;
+    }
+    
+    public double getTlbHitRate() {
+        return accesses == 0 ? 0.0 : (double) tlbHits / accesses;
+    }
+    
+    public double getPageFaultRate() {
+        return accesses == 0 ? 0.0 : (double) pageFaults / accesses;
+    }
+    
+    /**
+     * 有效访问时间：每次访问 = 数据访问一次 + 地址变换访问内存的次数，缺页另加缺页处理时间
+     */
+    public double getEffectiveAccessTime(double memoryNanos, double pageFaultNanos) {
+        if (accesses == 0) {
+            return 0.0;
+        }
+        return memoryNanos * (accesses + translationReferences) / accesses + pageFaultNanos * pageFaults / accesses;
+    }
+    
+    /**
+     * 段表和页表占用的内存(字节)
+     */
+    public long getPageTableMemory() {
+        long size = 0;
+        for (Process process : processes.values()) {
+            size += memory.getBlockSize(segmentTableName(process.name));
+            for (int i = 0; i < process.segments.length; i++) {
+                size += memory.getBlockSize(pageTableName(process.name, i));
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * 页框占用的内存(字节)
+     */
+    public long getFrameMemory() {
+        long frames = 0;
+        for (Process process : processes.values()) {
+            frames += process.frameCount;
+        }
+        return frames * pageSize;
+    }
+}
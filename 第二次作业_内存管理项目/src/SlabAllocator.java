@@ -0,0 +1,245 @@
+import java.util.*;
+
+/**
+ * Slab 分配器：建立在 PartitionManager 之上的分离适配（segregated fit）层
+ * 小对象按大小类别向上取整，每个类别从 PartitionManager 申请固定大小的 slab 分区，
+ * slab 切成等大的槽位，用每个 slab 自己的空闲槽位栈分配和回收，不再经过首次适应扫描，也不产生外部碎片；
+ * 每个类别缓存一个空 slab 供复用，多余的空 slab 归还给 PartitionManager
+ * 超过最大类别的请求直接交给 PartitionManager 按首次适应分配
+ */
+public class SlabAllocator {
+    public static final long[] SIZE_CLASSES = {
+        MemoryBlock.KB, 2 * MemoryBlock.KB, 4 * MemoryBlock.KB, 8 * MemoryBlock.KB, 16 * MemoryBlock.KB
+    }; // 对象大小类别(字节)
+    public static final long SLAB_SIZE = 32 * MemoryBlock.KB; // 每个 slab 分区的大小(字节)
+    private static final String SLAB_PREFIX = "#slab"; // slab 分区在 PartitionManager 中的进程名前缀
+    
+    private final PartitionManager manager;
+    private final List<Set<Slab>> partialSlabs = new ArrayList<>(); // 每个类别中还有空闲槽位的 slab
+    private final Slab[] emptySlabs = new Slab[SIZE_CLASSES.length]; // 每个类别缓存的空 slab
+    private final Map<String, Slab> slabs = new HashMap<>(); // slab 分区名 -> slab
+    private final Map<String, SlabObject> objects = new HashMap<>(); // 进程名 -> 小对象
+    private int nextSlabId = 1;
+    
+    /**
+     * 一个 slab 分区：分区名、大小类别和空闲槽位栈（紧凑会移动分区，地址每次按分区名从 PartitionManager 读取）
+     */
+    private static class Slab {
+        final String name;
+        final int sizeClass;
+        final int[] freeSlots;
+        int freeCount;
+        
+        Slab(String name, int sizeClass) {
+            this.name = name;
+            this.sizeClass = sizeClass;
+            this.freeSlots = new int[(int) (SLAB_SIZE / SIZE_CLASSES[sizeClass])];
+            // 低地址槽位在栈顶，先分配
+            for (int i = 0; i < freeSlots.length; i++) {
+                freeSlots[i] = freeSlots.length - 1 - i;
+            }
+            this.freeCount = freeSlots.length;
+        }
+        
+        int capacity() {
+            return freeSlots.length;
+        }
+    }
+    
+    /**
+     * 一个小对象：所在的 slab、槽位和实际请求的大小
+     */
+    private static class SlabObject {
+        final Slab slab;
+        final int slot;
+        final long requestedSize;
+        
+        SlabObject(Slab slab, int slot, long requestedSize) {
+            this.slab = slab;
+            this.slot = slot;
+            this.requestedSize = requestedSize;
+        }
+    }
+    
+    public SlabAllocator(PartitionManager manager) {
+        this.manager = manager;
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            partialSlabs.add(new LinkedHashSet<>());
+        }
+    }
+    
+    /**
+     * 重置：归还所有 slab 分区（大对象由 PartitionManager 自己管理）
+     */
+    public void reset() {
+        for (String slabName : slabs.keySet()) {
+            manager.deallocate(slabName);
+        }
+        slabs.clear();
+        objects.clear();
+        for (Set<Slab> partial : partialSlabs) {
+            partial.clear();
+        }
+        Arrays.fill(emptySlabs, null);
+        nextSlabId = 1;
+    }
+    
+    /**
+     * 以 slab 前缀开头的进程名保留给 slab 分区
+     */
+    public static boolean isReservedName(String processName) {
+        return processName.startsWith(SLAB_PREFIX);
+    }
+    
+    /**
+     * 进程名是否已被占用（小对象或 PartitionManager 中的分区）
+     */
+    public boolean containsProcess(String processName) {
+        return objects.containsKey(processName) || manager.containsProcess(processName);
+    }
+    
+    /**
+     * 分配内存：小对象从对应类别的 slab 中取空闲槽位，大对象按首次适应直接分配
+     */
+    public boolean allocate(String processName, long size) {
+        if (size <= 0 || isReservedName(processName) || containsProcess(processName)) {
+            return false;
+        }
+        int sizeClass = classFor(size);
+        if (sizeClass < 0) {
+            return manager.allocateFirstFit(processName, size);
+        }
+        
+        Slab slab = takeSlab(sizeClass);
+        if (slab == null) {
+            return false; // PartitionManager 中没有足够的空间放下新的 slab
+        }
+        int slot = slab.freeSlots[--slab.freeCount];
+        if (slab.freeCount == 0) {
+            partialSlabs.get(sizeClass).remove(slab);
+        }
+        objects.put(processName, new SlabObject(slab, slot, size));
+        return true;
+    }
+    
+    /**
+     * 释放内存：小对象把槽位还给 slab，其余交给 PartitionManager 释放
+     */
+    public boolean deallocate(String processName) {
+        SlabObject object = objects.remove(processName);
+        if (object == null) {
+            return !isReservedName(processName) && manager.deallocate(processName);
+        }
+        Slab slab = object.slab;
+        int sizeClass = slab.sizeClass;
+        slab.freeSlots[slab.freeCount++] = object.slot;
+        if (slab.freeCount == slab.capacity()) {
+            // slab 已空：缓存一个供复用，多余的归还
+            partialSlabs.get(sizeClass).remove(slab);
+            if (emptySlabs[sizeClass] == null) {
+                emptySlabs[sizeClass] = slab;
+            } else {
+                slabs.remove(slab.name);
+                manager.deallocate(slab.name);
+            }
+        } else if (slab.freeCount == 1) {
+            partialSlabs.get(sizeClass).add(slab); // 由满变为部分空闲
+        }
+        return true;
+    }
+    
+    /**
+     * 小对象的起始地址，不是小对象时返回 -1
+     */
+    public long getObjectAddress(String processName) {
+        SlabObject object = objects.get(processName);
+        if (object == null) {
+            return -1;
+        }
+        return manager.getAddress(object.slab.name) + object.slot * SIZE_CLASSES[object.slab.sizeClass];
+    }
+    
+    /**
+     * 分区是否为 slab
+     */
+    public boolean isSlab(String processName) {
+        return slabs.containsKey(processName);
+    }
+    
+    /**
+     * slab 分区的描述：对象大小和槽位使用情况
+     */
+    public String describeSlab(String slabName) {
+        Slab slab = slabs.get(slabName);
+        if (slab == null) {
+            return slabName;
+        }
+        return String.format("slab %s×%d（已用%d）", MemoryBlock.formatSize(SIZE_CLASSES[slab.sizeClass]),
+            slab.capacity(), slab.capacity() - slab.freeCount);
+    }
+    
+    public int getSlabCount() {
+        return slabs.size();
+    }
+    
+    public int getObjectCount() {
+        return objects.size();
+    }
+    
+    /**
+     * 计算外部碎片：slab 内部不产生外部碎片，外部碎片即底层 PartitionManager 的碎片
+     */
+    public double getFragmentation() {
+        return manager.getFragmentation();
+    }
+    
+    /**
+     * 计算内部碎片：slab 占用的内存中未被对象实际使用的比例（包括取整浪费和空闲槽位）
+     */
+    public double getInternalFragmentation() {
+        long slabMemory = slabs.size() * SLAB_SIZE;
+        if (slabMemory == 0) {
+            return 0.0;
+        }
+        long requestedSize = 0;
+        for (SlabObject object : objects.values()) {
+            requestedSize += object.requestedSize;
+        }
+        return 1.0 - (double)requestedSize / slabMemory;
+    }
+    
+    /**
+     * 取一个有空闲槽位的 slab：优先部分使用的，其次缓存的空 slab，最后向 PartitionManager 申请新的
+     */
+    private Slab takeSlab(int sizeClass) {
+        Set<Slab> partial = partialSlabs.get(sizeClass);
+        if (!partial.isEmpty()) {
+            return partial.iterator().next();
+        }
+        Slab slab = emptySlabs[sizeClass];
+        if (slab != null) {
+            emptySlabs[sizeClass] = null;
+        } else {
+            String name = SLAB_PREFIX + MemoryBlock.formatSize(SIZE_CLASSES[sizeClass]) + "-" + nextSlabId++;
+            if (!manager.allocateFirstFit(name, SLAB_SIZE)) {
+                return null;
+            }
+            slab = new Slab(name, sizeClass);
+            slabs.put(name, slab);
+        }
+        partial.add(slab);
+        return slab;
+    }
+    
+    /**
+     * 不小于 size 的最小大小类别，超过最大类别时返回 -1
+     */
+    private static int classFor(long size) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (size <= SIZE_CLASSES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
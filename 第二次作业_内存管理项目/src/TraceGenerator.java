@@ -0,0 +1,122 @@
+import java.util.*;
+
+/**
+ * 合成分配 trace 生成器：大小分布和对象寿命可配置
+ * 每一步分配一个新对象，寿命（以之后的分配次数计）服从指数分布，到期的对象在下一次分配前释放；
+ * 生成结束时仍存活的对象不释放，保持结束时的内存占用
+ */
+public class TraceGenerator {
+    /**
+     * 大小分布
+     */
+    public enum SizeDistribution {
+        MIXED,       // 七成小请求、两成多中等请求、少量大请求（大小按最大值的比例划分）
+        UNIFORM,     // [最小值, 最大值] 均匀分布
+        EXPONENTIAL  // 均值为 mean 的指数分布，截断到 [最小值, 最大值]
+    }
+    
+    private final Random random;
+    private SizeDistribution distribution = SizeDistribution.MIXED;
+    private long minSize = MemoryBlock.KB;
+    private long maxSize = 160 * MemoryBlock.KB;
+    private long meanSize = 16 * MemoryBlock.KB;
+    private double meanLifetime = 30; // 平均寿命：之后再发生多少次分配后释放
+    
+    public TraceGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+    
+    public void setMixedSizes(long maxSize) {
+        this.distribution = SizeDistribution.MIXED;
+        this.minSize = 1;
+        this.maxSize = maxSize;
+    }
+    
+    public void setUniformSizes(long minSize, long maxSize) {
+        checkRange(minSize, maxSize);
+        this.distribution = SizeDistribution.UNIFORM;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+    
+    public void setExponentialSizes(long meanSize, long minSize, long maxSize) {
+        checkRange(minSize, maxSize);
+        this.distribution = SizeDistribution.EXPONENTIAL;
+        this.meanSize = meanSize;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+    
+    public void setMeanLifetime(double meanLifetime) {
+        if (meanLifetime <= 0) {
+            throw new IllegalArgumentException("平均寿命必须大于0");
+        }
+        this.meanLifetime = meanLifetime;
+    }
+    
+    /**
+     * 生成含 allocations 次分配的 trace（释放穿插其中）
+     */
+    public AllocationTrace generate(int allocations) {
+        List<String> names = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        // 待释放的对象，按到期的分配序号排序：[到期序号, 对象编号]
+        PriorityQueue<long[]> expiries = new PriorityQueue<>(Comparator.comparingLong((long[] e) -> e[0]));
+        for (int step = 0; step < allocations; step++) {
+            while (!expiries.isEmpty() && expiries.peek()[0] <= step) {
+                names.add("P" + expiries.poll()[1]);
+                sizes.add(0L);
+            }
+            names.add("P" + step);
+            sizes.add(nextSize());
+            long lifetime = 1 + (long) (-Math.log(1 - random.nextDouble()) * meanLifetime);
+            expiries.add(new long[] {step + lifetime, step});
+        }
+        long[] sizeArray = new long[sizes.size()];
+        for (int i = 0; i < sizeArray.length; i++) {
+            sizeArray[i] = sizes.get(i);
+        }
+        return new AllocationTrace(names.toArray(new String[0]), sizeArray);
+    }
+    
+    private long nextSize() {
+        switch (distribution) {
+            case UNIFORM:
+                return minSize + (long) (random.nextDouble() * (maxSize - minSize + 1));
+            case EXPONENTIAL:
+                long size = Math.round(-Math.log(1 - random.nextDouble()) * meanSize);
+                return Math.max(minSize, Math.min(maxSize, size));
+            default:
+                // 与最大值 160K 时的划分一致：1-8K 占七成，9-64K 占两成五，65-160K 占半成
+                int kind = random.nextInt(100);
+                long unit = Math.max(1, maxSize / 160);
+                long units = kind < 70 ? 1 + random.nextInt(8)
+                    : kind < 95 ? 9 + random.nextInt(56)
+                    : 65 + random.nextInt(96);
+                return units * unit;
+        }
+    }
+    
+    private static void checkRange(long minSize, long maxSize) {
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("大小范围无效: " + minSize + " - " + maxSize);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        String sizes;
+        switch (distribution) {
+            case UNIFORM:
+                sizes = "均匀分布 " + MemoryBlock.formatSize(minSize) + "-" + MemoryBlock.formatSize(maxSize);
+                break;
+            case EXPONENTIAL:
+                sizes = "指数分布 均值" + MemoryBlock.formatSize(meanSize) + "，截断到 "
+                    + MemoryBlock.formatSize(minSize) + "-" + MemoryBlock.formatSize(maxSize);
+                break;
+            default:
+                sizes = "混合分布 最大" + MemoryBlock.formatSize(maxSize);
+        }
+        return String.format("%s，平均寿命 %.0f 次分配", sizes, meanLifetime);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * 2Q 置换（Johnson 和 Shasha 的完整版本）
+ * 第一次装入的页面进入 FIFO 队列 A1in；A1in 超过 Kin 个块时置换它的队首，页面号记入只记页面号的 FIFO 队列 A1out；
+ * 缺页的页面在 A1out 中说明它不止被访问过一次，装入到 LRU 链 Am；A1in 不超过 Kin 时置换 Am 的表头
+ * 只访问一次的页面（如顺序扫描）只在 A1in 中停留，不会挤掉 Am 中经常访问的页面
+ * Kin 取内存块数的 1/4，A1out 最多记内存块数的 1/2 个页面（论文推荐的取值），每次访问 O(1)
+ */
+public class TwoQueuePolicy implements ReplacementPolicy {
+    private int maxIn;   // Kin
+    private int maxOut;  // Kout
+    private IndexList in = new IndexList(0);  // A1in，内存块号
+    private IndexList out = new IndexList(0); // A1out，页面号
+    private IndexList main = new IndexList(0); // Am，内存块号
+    private int[] framePages = new int[0];
+    
+    public String getName() {
+        return "2Q";
+    }
+    
+    public void reset(int frames, int pages) {
+        maxIn = Math.max(1, frames / 4);
+        maxOut = Math.max(1, frames / 2);
+        in = new IndexList(frames);
+        out = new IndexList(pages);
+        main = new IndexList(frames);
+        framePages = new int[frames];
+    }
+    
+    // 接管的页面都进入 A1in
+    public boolean ordersByLoadTime() {
+        return true;
+    }
+    
+    public void pageLoaded(int frame, int page, long time) {
+        framePages[frame] = page;
+        if (out.contains(page)) {
+            out.remove(page);
+            main.addLast(frame);
+        } else {
+            in.addLast(frame);
+        }
+    }
+    
+    public void pageHit(int frame, int page, long time) {
+        // A1in 中的页面命中时不移动
+        if (main.contains(frame)) {
+            main.moveToLast(frame);
+        }
+    }
+    
+    public int evict(int page, long time) {
+        if (in.size() > maxIn || main.isEmpty()) {
+            int frame = in.removeFirst();
+            out.addLast(framePages[frame]);
+            if (out.size() > maxOut) {
+                out.removeFirst();
+            }
+            return frame;
+        }
+        return main.removeFirst();
+    }
+}